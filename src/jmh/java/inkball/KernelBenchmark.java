@@ -0,0 +1,72 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the ball kernels on the BallStore operations they implement:
+ * moving balls, reflecting them off the board edges and finding the holes in range.
+ * Walls are left out so the kernel's share of each operation is what is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelBenchmark {
+    private static final int ROWS = (App.HEIGHT - App.TOPBAR) / App.CELLSIZE;
+    private static final int COLS = App.WIDTH / App.CELLSIZE;
+
+    @Param({"100", "1000", "10000"})
+    public int ballCount;
+
+    /** "preferred" is the Vector API kernel when the module is added */
+    @Param({"preferred", "scalar"})
+    public String kernel;
+
+    private BallStore ballStore;
+    private WallField noWalls;
+    private HoleRegistry holeRegistry;
+    private int[] holeIndices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        ballStore = new BallStore(ballCount);
+        ballStore.setBounds(App.WIDTH, App.HEIGHT);
+        for (int i = 0; i < ballCount; i++) {
+            float x = random.nextFloat() * (App.WIDTH - App.CELLSIZE);
+            float y = App.TOPBAR + random.nextFloat() * (App.HEIGHT - App.TOPBAR - App.CELLSIZE);
+            ballStore.add(x, y, random.nextBoolean() ? 2 : -2, random.nextBoolean() ? 2 : -2, random.nextInt(5));
+        }
+        ballStore.setKernel(kernel.equals("scalar") ? BallKernels.SCALAR : BallKernels.preferred());
+        holeIndices = new int[ballCount];
+        noWalls = new WallField(ROWS, COLS);
+
+        holeRegistry = new HoleRegistry(ROWS, COLS);
+        for (int i = 0; i < 8; i++) {
+            float x = random.nextFloat() * App.WIDTH;
+            float y = App.TOPBAR + random.nextFloat() * (App.HEIGHT - App.TOPBAR);
+            holeRegistry.add(x, y, random.nextInt(5));
+        }
+    }
+
+    @Benchmark
+    public void integrate() {
+        ballStore.integrate();
+    }
+
+    @Benchmark
+    public void reflectOffBounds() {
+        ballStore.checkCollisions(noWalls);
+    }
+
+    @Benchmark
+    public int[] findHoles() {
+        ballStore.findHoles(holeRegistry, 0, ballStore.size(), holeIndices);
+        return holeIndices;
+    }
+}
@@ -0,0 +1,168 @@
+package inkball;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import processing.data.JSONObject;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the physics hot paths the engine runs: ball-vs-wall collisions through
+ * the wall field, ball-vs-line collisions, line hit testing, hole checks and a full engine tick.
+ * Each benchmark operation covers every ball so results scale with the parameters.
+ * KernelBenchmark compares the ball kernels on their own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhysicsBenchmark {
+    private static final int ROWS = (App.HEIGHT - App.TOPBAR) / App.CELLSIZE;
+    private static final int COLS = App.WIDTH / App.CELLSIZE;
+
+    @Param({"10", "100", "1000"})
+    public int ballCount;
+
+    @Param({"20", "150"})
+    public int wallCount;
+
+    @Param({"10", "200"})
+    public int segmentCount;
+
+    private WallField wallField;
+    private Line line;
+    private HoleRegistry holeRegistry;
+    private float[] probeX;
+    private float[] probeY;
+    private GameEngine engine;
+    private BallStore ballStore;
+    private int[] holeIndices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        WallGrid wallGrid = new WallGrid(ROWS, COLS);
+        for (int i = 0; i < wallCount; i++) {
+            wallGrid.add(new Wall(random.nextInt(COLS), random.nextInt(ROWS), "wall" + random.nextInt(5), null));
+        }
+        wallField = new WallField(ROWS, COLS);
+        wallField.build(wallGrid);
+
+        ballStore = new BallStore(ballCount);
+        ballStore.setBounds(App.WIDTH, App.HEIGHT);
+        probeX = new float[ballCount];
+        probeY = new float[ballCount];
+        for (int i = 0; i < ballCount; i++) {
+            float x = random.nextFloat() * (App.WIDTH - App.CELLSIZE);
+            float y = App.TOPBAR + random.nextFloat() * (App.HEIGHT - App.TOPBAR - App.CELLSIZE);
+            ballStore.add(x, y, random.nextBoolean() ? 2 : -2, random.nextBoolean() ? 2 : -2, random.nextInt(5));
+            probeX[i] = x;
+            probeY[i] = y;
+        }
+        holeIndices = new int[ballCount];
+
+        // A freehand stroke zig-zagging across the board
+        line = new Line();
+        for (int i = 0; i <= segmentCount; i++) {
+            float x = (float) i / segmentCount * App.WIDTH;
+            float y = App.TOPBAR + (App.HEIGHT - App.TOPBAR) / 2f + (i % 2 == 0 ? -20 : 20);
+            line.addPoint(x, y);
+        }
+
+        holeRegistry = new HoleRegistry(ROWS, COLS);
+        for (int i = 0; i < 8; i++) {
+            float x = random.nextFloat() * App.WIDTH;
+            float y = App.TOPBAR + random.nextFloat() * (App.HEIGHT - App.TOPBAR);
+            holeRegistry.add(x, y, random.nextInt(5));
+        }
+    }
+
+    /** Reloads the level so captures in one iteration don't empty the board for the next */
+    @Setup(Level.Iteration)
+    public void setUpEngine() {
+        engine = createEngine();
+        engine.start();
+    }
+
+    /**
+     * Builds an engine for a generated level holding exactly ballCount balls.
+     * The board is the window's width and as many rows taller than the window as the balls need.
+     */
+    private GameEngine createEngine() {
+        int rows = Math.max(ROWS, (ballCount + wallCount) / (COLS / 2) + 2);
+        char[][] layout = new char[rows][COLS];
+        for (char[] row : layout) {
+            Arrays.fill(row, ' ');
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < wallCount; i++) {
+            layout[random.nextInt(rows)][random.nextInt(COLS)] = 'X';
+        }
+        layout[rows - 2][COLS - 2] = 'H';
+        layout[rows - 2][COLS - 1] = '0';
+        int placed = 0;
+        for (int row = 0; row < rows && placed < ballCount; row++) {
+            for (int col = 0; col + 1 < COLS && placed < ballCount; col += 2) {
+                if (layout[row][col] == ' ' && layout[row][col + 1] == ' ') {
+                    layout[row][col] = 'B';
+                    layout[row][col + 1] = (char) ('0' + placed % 5);
+                    placed++;
+                }
+            }
+        }
+        if (placed < ballCount) {
+            throw new IllegalStateException("Only " + placed + " of " + ballCount + " balls fit on the board");
+        }
+        String[] lines = new String[rows];
+        for (int row = 0; row < rows; row++) {
+            lines[row] = new String(layout[row]);
+        }
+
+        JSONObject config = JSONObject.parse(TestLevels.config(TestLevels.level("bench.txt", 1000000, 10, "")));
+        return new GameEngine(config, name -> lines, null);
+    }
+
+    @Benchmark
+    public void ballStoreStep() {
+        ballStore.integrate();
+        ballStore.checkCollisions(wallField);
+    }
+
+    @Benchmark
+    public void lineHandleCollision(Blackhole bh) {
+        for (int i = 0; i < ballStore.size(); i++) {
+            bh.consume(line.handleCollision(ballStore, i));
+        }
+    }
+
+    @Benchmark
+    public void lineMouseNearLine(Blackhole bh) {
+        for (int i = 0; i < probeX.length; i++) {
+            bh.consume(line.mouseNearLine(probeX[i], probeY[i]));
+        }
+    }
+
+    @Benchmark
+    public void ballStoreCheckHole(Blackhole bh) {
+        for (int i = 0; i < ballStore.size(); i++) {
+            bh.consume(ballStore.checkHole(i, holeRegistry));
+        }
+    }
+
+    @Benchmark
+    public int[] ballStoreFindHoles() {
+        ballStore.findHoles(holeRegistry, 0, ballStore.size(), holeIndices);
+        return holeIndices;
+    }
+
+    @Benchmark
+    public int levelTick() {
+        engine.tick();
+        return engine.getBalls().size();
+    }
+}
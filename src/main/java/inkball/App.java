@@ -1,11 +1,13 @@
 package inkball;
 
 import processing.core.PApplet;
+import processing.core.PGraphics;
 import processing.core.PImage;
-import processing.data.JSONArray;
 import processing.data.JSONObject;
 import processing.event.KeyEvent;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 
 
@@ -16,44 +18,40 @@ public class App extends PApplet {
     public static final int TOPBAR = 64;
     public static int WIDTH = 576; ;
     public static int HEIGHT = 640;
-    public static final int FPS = 30;
+    public static final int FPS = 30; // display frame rate; the simulation ticks at the engine's own rate
     public String configPath;
-    private String[][] board;
-    private ArrayList<Wall> walls = new ArrayList<>();
-    private ArrayList<Ball> balls = new ArrayList<>(); //stores balls
-    private ArrayList<Line> lines;    // stores lines
-    private ArrayList<Object[]> holeCentres = new ArrayList<>(); //stores the hole centres and colour (x , y , colour)
-    private Line currentLine;
-    private ArrayList<int[]> spawnerLocations = new ArrayList<>();
-    private Queue<String> ballColoursToSpawn = new LinkedList<>(); //ball colours to spawn
-    private int spawnInterval;
-    private int spawnTimer;
-    private int currentBallIndex = 0;
+    public String bundlePath; // optional levels compiled by LevelCompiler, used instead of configPath when present
+    public String profilePath = "profile.txt"; // frame profile summary written on exit
+    public String journalPath = "session.journal"; // input journal written on exit, replayable with Replay
+    private GameEngine engine; // runs the simulation, App only renders and forwards input
+    private SimulationThread simulation; // steps the engine on its own thread
+    private final SnapshotBuffer snapshots = new SnapshotBuffer(); // engine state published after every tick
+    private FrameSnapshot frame; // snapshot being rendered this frame
     private int queueOffset = 0; //for visual queue
+    private int spawnsSeen = 0; //engine spawn count already reflected in queueOffset
     private int countdownX = 200;
     private int countdownY = 20;
-    private int score = 0;
-    private float scoreIncreaseModifier;
-    private float scoreDecreaseModifier;
-    private HashMap<String, Integer> scoreIncreaseValues = new HashMap<>();
-    private HashMap<String, Integer> scoreDecreaseValues = new HashMap<>();
-    private int countdownTime;
-    private int timeRemaining;
-    private boolean levelEnded = false;
-    private boolean gameEnded = false;
-    private boolean timeUp = false;
-    private boolean gameFinished = false;
-    private int currentLevelIndex = 0;
-    private JSONArray levels;
-    private boolean paused = false;
-    private int incrementedTime = 0;
-    private boolean incrementingScore = false;
-    private String lastBallColor = "";
+    private HudFont hudFont; // timer and score glyphs
+    private HudFont countdownFont; // spawn countdown glyphs
+    private final HudField timeField = new HudField("Time: ");
+    private final HudField scoreField = new HudField("Score: ");
+    private final HudField countdownField = new HudField("");
     private boolean animationTriggered = false;
-    private HashMap<String, PImage> sprites = new HashMap<>();
+    private SpriteAtlas sprites; // every sprite, sliced from the spritesheet
     private TileAnimation tileAnimation;
+    private static final int CHUNK_CELLS = 8; // board cells per side of a cached chunk
+    private PGraphics[] boardChunks = new PGraphics[0]; // static board, rendered per chunk when first seen
+    private int boardChunkCols;
+    private int boardLayerVersion = -1; // engine level version the board chunks were rendered for
+    private Camera camera; // scrolls levels larger than the window, panned with the arrow keys
+    private final FrameProfiler profiler = new FrameProfiler(); // times the render phases of each frame
+    private FrameProfiler simulationProfiler; // the engine's, timing the simulation phases of each tick
+    private int bonusStepsSeen = 0; // engine bonus steps already shown by the tile animation
+    private boolean showProfile = false; // on-screen frame profile, toggled with 'f'
+    private InputJournal journal; // every input of this session
     public App() {
         this.configPath = "config.json";
+        this.bundlePath = "levels.bin";
     }
 
 
@@ -66,295 +64,50 @@ public class App extends PApplet {
     @Override
     public void setup() {
         frameRate(FPS);
-        lines = new ArrayList<>();
-        currentLine = null;
 
-        loadSprites();
-        initialiseBoard();
-        loadConfigData();
+        sprites = SpriteAtlas.load(this);
+        initialiseEngine();
+        profiler.setEnabled(true);
+        simulationProfiler = engine.getProfiler();
+        simulationProfiler.setEnabled(true);
+        journal = new InputJournal(engine.getSeed());
+        engine.setJournal(journal);
         tileAnimation = new TileAnimation();
+        hudFont = new HudFont(this, 16, 0);
+        countdownFont = new HudFont(this, 14, 0);
+        camera = new Camera(WIDTH, HEIGHT);
 
 
-        loadLevelData(currentLevelIndex);
-
-
-        spawnTimer = spawnInterval * FPS;
-        countdownTime = spawnInterval;
-
-
-    }
-
-    /**
-     * Loads all game sprites into memory. Initializes sprites for tiles, walls,
-     * holes, balls and other game elements.
-     */
-    private void loadSprites() {
-
-
-        String[] spriteNames = {
-                "tile", "wall0", "wall1", "wall2", "wall3", "wall4",
-                "hole0", "hole1", "hole2", "hole3", "hole4", "entrypoint",
-                "ball0", "ball1", "ball2", "ball3", "ball4",
-
-        };
-
-
-        for (String spriteName : spriteNames) {
-            getSprite(spriteName);
-        }
+        engine.start();
+        simulation = new SimulationThread(engine, snapshots);
+        simulation.start();
+        frame = snapshots.acquire();
     }
 
     /**
-     * Initialises the game board with dimensions based on window size and cell size.
-     * Creates a 2D array to store the board state.
+     * Creates the simulation engine. A compiled level bundle is memory-mapped if one exists
+     * and is no older than config.json; otherwise config.json and the layouts are compiled once
+     * here, through the sketch so paths resolve as before. Either way no parsing happens on
+     * level transitions.
      */
-    private void initialiseBoard() {
-
-        this.board = new String[(HEIGHT - TOPBAR) / CELLSIZE][WIDTH / CELLSIZE];
-    }
-
-    /**
-     * Loads game configuration from config.json file.
-     * Stores level data in the levels JSONArray.
-     */
-    private void loadConfigData() {
-        JSONObject config = loadJSONObject("config.json");
-        levels = config.getJSONArray("levels");
-    }
-
-    /**
-     * Retrieves or loads a sprite image by name.
-     * @param spriteName Name of the sprite to load
-     * @return The loaded PImage sprite, or null if not found
-     */
-    private PImage getSprite(String spriteName) {
-
-
-        PImage sprite = sprites.get(spriteName);
-        if (sprite == null) {
-            try {
-
-
-                String path = this.getClass().getResource("/inkball/" + spriteName + ".png").getPath().replace("%20", " ");
-                sprite = loadImage(path);
-                sprites.put(spriteName, sprite);
-            } catch (NullPointerException e) {
-
-
-                System.out.println("The file /inkball/" + spriteName + ".png is missing or inaccessible");
-            }
-        }
-        return sprite;
-    }
-
-    /**
-     * Loads level data for the specified level index.
-     * Sets up game state, timer, and level configuration.
-     * @param levelIndex Index of level to load
-     */
-    private void loadLevelData(int levelIndex) {
-
-        if (levelIndex >= levels.size()) {
-            gameEnded = true;
-            return;
-        }
-
-        JSONObject levelData = levels.getJSONObject(levelIndex);
-        loadLevel(levelData.getString("layout"));
-        loadConfig(levelData);
-
-        timeRemaining = levelData.getInt("time");
-        levelEnded = false;
-        timeUp = false;
-        spawnTimer = spawnInterval * FPS;
-        countdownTime = spawnInterval;
-    }
-
-
-    private enum TileType {
-        WALL('X', '1', '2', '3', '4'),
-        SPAWNER('S'),
-        BALL('B'),
-        HOLE('H'),
-        DEFAULT(' ');
-
-        private final char[] chars;
-
-        TileType(char... chars) {
-            this.chars = chars;
-        }
-
-        static TileType from(char c) {
-            for (TileType type : values()) {
-                for (char typeChar : type.chars) {
-                    if (typeChar == c) return type;
-                }
-            }
-            return DEFAULT;
-        }
-    }
-
-    private class TilePosition {
-        final int row, col;
-        final float x, y;
-
-        TilePosition(int row, int col) {
-            this.row = row;
-            this.col = col;
-            this.x = col * CELLSIZE;
-            this.y = row * CELLSIZE + TOPBAR;
-        }
-    }
-    /**
-     * Loads level layout from file and initializes game objects.
-     * Creates walls, holes, spawners and initial balls.
-     * @param filename Path to level layout file
-     */
-    private void loadLevel(String filename) {
-        spawnerLocations.clear();
-        holeCentres.clear();
-        walls.clear();
-        balls.clear();
-        lines.clear();
-        String[] levelLines = loadStrings(filename);
-
-
-        for (int row = 0; row < board.length; row++) {
-            for (int col = 0; col < board[row].length; col++) {
-                board[row][col] = "tile";
-            }
-        }
-
-
-        for (int row = 0; row < levelLines.length; row++) {
-            String line = levelLines[row];
-            for (int col = 0; col < line.length(); col++) {
-                char currentTile = line.charAt(col);
-                char nextTile = (col + 1 < line.length()) ? line.charAt(col + 1) : ' ';
-                showTiles(row, col, currentTile, nextTile, line);
-
-                if (currentTile == 'B' || currentTile == 'H') {
-                    col++;
-                }
+    private void initialiseEngine() {
+        File bundleFile = new File(sketchPath(bundlePath));
+        File configFile = new File(sketchPath(configPath));
+        try {
+            if (LevelBundle.isUpToDate(bundleFile.toPath(), configFile.toPath())) {
+                engine = new GameEngine(LevelBundle.read(bundleFile.toPath()), sprites);
+                return;
             }
-        }
-    }
-
-    private void showTiles(int row, int col, char tileChar, char nextChar, String line) {
-        TilePosition pos = new TilePosition(row, col);
-
-        switch (TileType.from(tileChar)) {
-            case WALL:
-                String wallName = "wall" + (tileChar == 'X' ? "0" : String.valueOf(tileChar));
-                createWall(pos, wallName);
-                board[row][col] = wallName;
-                break;
-
-            case SPAWNER:
-                createSpawner(pos);
-                break;
-
-            case BALL:
-                createBall(pos, nextChar);
-                break;
-
-            case HOLE:
-                createHole(pos, nextChar);
-                break;
-
-            default:
-                board[row][col] = "tile";
-        }
-    }
-
-    private void createWall(TilePosition pos, String wallName) {
-        PImage wallSprite = getSprite(wallName);
-        walls.add(new Wall(pos.col, pos.row, wallName, wallSprite));
-    }
-
-    private void createBall(TilePosition pos, char colorChar) {
-        String ballName = "ball" + colorChar;
-        Ball ball = new Ball(pos.x, pos.y, 0, 0, ballName, getSprite(ballName));
-        ball.initialiseRandomVelocity();
-        balls.add(ball);
-
-        board[pos.row][pos.col] = "tile";
-        board[pos.row][pos.col + 1] = "tile";
-    }
-
-    private void createHole(TilePosition pos, char colorChar) {
-        float centerX = pos.x + CELLSIZE;
-        float centerY = pos.y + CELLSIZE;
-        int holeColor = Character.getNumericValue(colorChar);
-        String holeName = "hole" + colorChar;
-
-        holeCentres.add(new Object[]{centerX, centerY, holeColor});
-
-        // Set hole tiles
-        for (int r = 0; r < 2; r++) {
-            for (int c = 0; c < 2; c++) {
-                board[pos.row + r][pos.col + c] = holeName;
+            if (bundleFile.isFile()) {
+                System.out.println("The file " + bundlePath + " is older than " + configPath + ", compiling " + configPath);
             }
+        } catch (IOException e) {
+            System.out.println("The file " + bundlePath + " could not be read, compiling " + configPath);
         }
-        board[pos.row][pos.col + 1] = "tile";
-    }
-
-    private void createSpawner(TilePosition pos) {
-        spawnerLocations.add(new int[]{(int)pos.x, (int)pos.y});
-        board[pos.row][pos.col] = "entrypoint";
-    }
-
-
-
-    public void loadConfig(JSONObject levelData) {
-
-
-        spawnInterval = levelData.getInt("spawn_interval");
-        JSONArray ballsArray = levelData.getJSONArray("balls");
-
-
-        ballColoursToSpawn.clear();
-        for (int i = 0; i < ballsArray.size(); i++) {
-            String colour = ballsArray.getString(i);
-            ballColoursToSpawn.add(String.valueOf(getColour(colour)));
-        }
-
-
-        spawnTimer = spawnInterval * FPS;
-        currentBallIndex = 0;
-
-
-        scoreIncreaseModifier = (float) levelData.getDouble("score_increase_from_hole_capture_modifier");
-        scoreDecreaseModifier = (float) levelData.getDouble("score_decrease_from_wrong_hole_modifier");
-
-
-        loadScore();
+        JSONObject config = loadJSONObject(configPath);
+        engine = new GameEngine(LevelCompiler.compile(config, this::loadStrings), sprites);
     }
 
-
-    private void loadScore() {
-
-
-        JSONObject config = loadJSONObject("config.json");
-        JSONObject scoreIncreaseConfig = config.getJSONObject("score_increase_from_hole_capture");
-        JSONObject scoreDecreaseConfig = config.getJSONObject("score_decrease_from_wrong_hole");
-
-
-        scoreIncreaseValues.put("grey", scoreIncreaseConfig.getInt("grey"));
-        scoreIncreaseValues.put("orange", scoreIncreaseConfig.getInt("orange"));
-        scoreIncreaseValues.put("blue", scoreIncreaseConfig.getInt("blue"));
-        scoreIncreaseValues.put("green", scoreIncreaseConfig.getInt("green"));
-        scoreIncreaseValues.put("yellow", scoreIncreaseConfig.getInt("yellow"));
-
-
-        scoreDecreaseValues.put("grey", scoreDecreaseConfig.getInt("grey"));
-        scoreDecreaseValues.put("orange", scoreDecreaseConfig.getInt("orange"));
-        scoreDecreaseValues.put("blue", scoreDecreaseConfig.getInt("blue"));
-        scoreDecreaseValues.put("green", scoreDecreaseConfig.getInt("green"));
-        scoreDecreaseValues.put("yellow", scoreDecreaseConfig.getInt("yellow"));
-    }
-
-
     @Override
     public void keyPressed(KeyEvent event) {
         char key = event.getKey();
@@ -364,26 +117,42 @@ public class App extends PApplet {
         }
 
         if (key == ' ') {
-            paused = !paused;
+            offerInput(InputQueue.KEY, key);
+        }
+
+        if (key == 'f') {
+            showProfile = !showProfile;
+        }
+
+        if (key == CODED) {
+            switch (event.getKeyCode()) {
+                case UP: camera.pan(0, -CELLSIZE); break;
+                case DOWN: camera.pan(0, CELLSIZE); break;
+                case LEFT: camera.pan(-CELLSIZE, 0); break;
+                case RIGHT: camera.pan(CELLSIZE, 0); break;
+            }
         }
     }
 
 
     private void resetGame() {
 
-        currentLevelIndex = 0;
-        score = 0;
-        incrementedTime = 0;
-        gameEnded = false;
-        levelEnded = false;
-        timeUp = false;
-        incrementingScore = false;
         animationTriggered = false;
+        offerInput(InputQueue.KEY, 'r');
+    }
 
-        balls.clear();
-        lines.clear();
-
-        loadLevelData(currentLevelIndex);
+    /**
+     * Hands an input event to the engine, which applies it at the start of its next tick.
+     * The queue only fills if the simulation stalls; a dropped event is reported, since
+     * a lost press, release or key leaves the game out of step with what the player did.
+     * @param type InputQueue event type
+     * @param key Key for KEY events
+     */
+    private void offerInput(byte type, char key) {
+        InputQueue input = engine.getInput();
+        if (!input.offer(type, camera.toWorldX(mouseX), camera.toWorldY(mouseY), key)) {
+            System.out.println("Input queue full, dropped event " + type + " (" + input.getDroppedCount() + " dropped so far)");
+        }
     }
 
 
@@ -404,8 +173,8 @@ public class App extends PApplet {
     public void mouseDragged() {
 
 
-        if (mouseButton == LEFT && currentLine != null) {
-            currentLine.addPoint(mouseX, mouseY);
+        if (mouseButton == LEFT) {
+            offerInput(InputQueue.DRAG, (char) 0);
         }
     }
 
@@ -414,9 +183,8 @@ public class App extends PApplet {
     public void mouseReleased() {
 
 
-        if (mouseButton == LEFT && currentLine != null) {
-            lines.add(currentLine);
-            currentLine = null;
+        if (mouseButton == LEFT) {
+            offerInput(InputQueue.RELEASE, (char) 0);
         }
     }
 
@@ -424,216 +192,269 @@ public class App extends PApplet {
     private void startNewLine() {
 
 
-        currentLine = new Line();
-        currentLine.addPoint(mouseX, mouseY);
+        offerInput(InputQueue.PRESS, (char) 0);
     }
 
 
     private void deleteLine() {
 
 
-        for (int i = 0; i < lines.size(); i++) {
-            Line line = lines.get(i);
-            if (line.mouseNearLine(mouseX, mouseY)) {
-                lines.remove(i);
-                break;
-            }
-        }
+        offerInput(InputQueue.ERASE, (char) 0);
     }
 
 
     @Override
     public void draw() {
+        frame = snapshots.acquire();
+        profiler.beginFrame();
         background(123);
-        GameState.update(this);
         renderGame();
+        profiler.endFrame();
 
-        if (levelEnded || gameEnded) {
-            return;
+        if (showProfile) {
+            displayProfile();
         }
     }
 
-    private static class GameState {
-        private static void update(App app) {
-            app.updateTimers();
-            app.handleGameProgress();
-            //app.displayGameInfo();
-        }
-    }
-
-    private void updateTimers() {
-        if (paused || timeUp) {
-            return;
-        }
-
-        updateGameTimer();
-        updateBallSpawner();
-    }
-
-    private void updateGameTimer() {
-        if (levelEnded || timeRemaining <= 0) {
-            return;
-        }
-
-        if (frameCount % FPS == 0) {
-            timeRemaining--;
-            checkTimeUp();
-        }
-    }
-
-    private void checkTimeUp() {
-        if (timeRemaining <= 0) {
-            timeUp = true;
-            levelEnded = true;
-        }
-    }
-
-    private void updateBallSpawner() {
-        if (ballColoursToSpawn.isEmpty() && spawnTimer <= 0) {
-            countdownTime = 0;
-            return;
-        }
-
-        if (spawnTimer <= 0) {
-            spawnNewBall();
-        } else {
-            spawnTimer--;
-            countdownTime = spawnTimer / FPS;
+    @Override
+    public void dispose() {
+        if (simulation != null) {
+            simulation.stop(); // the engine is only touched from this thread from here on
         }
-    }
-
-    private void spawnNewBall() {
-        spawnBall();
-        spawnTimer = spawnInterval * FPS;
-        countdownTime = spawnInterval;
-    }
-
-    private void handleGameProgress() {
-        if (paused || incrementingScore) {
-            if (incrementingScore) {
-                updateScore();
-                displayScore();
+        if (profiler.getFrames() > 0) {
+            try {
+                FrameProfiler.writeSummary(new File(sketchPath(profilePath)).toPath(),
+                        new String[] {"Simulation ticks", "Rendered frames"}, simulationProfiler, profiler);
+            } catch (IOException e) {
+                System.out.println("The file " + profilePath + " could not be written");
             }
-            return;
         }
-
-        checkLevelCompletion();
-    }
-
-    private void updateScore() {
-        if (incrementedTime >= timeRemaining) {
-            incrementingScore = false;
-            animationTriggered = false;
-            timeRemaining = 0;
-            return;
-        }
-
-        if (frameCount % 2 == 0) {
-            score++;
-            incrementedTime++;
-            animateTiles(1);
-        } else {
-            animateTiles(0);
+        if (journal != null) {
+            journal.finish(engine.getTick(), engine.checksum());
+            try {
+                journal.write(new File(sketchPath(journalPath)).toPath());
+            } catch (IOException e) {
+                System.out.println("The file " + journalPath + " could not be written");
+            }
         }
+        super.dispose();
     }
 
-
-
     private void renderGame() {
         drawGameElements();
+
+        long start = profiler.start();
+        drawTileAnimation();
         displayMessages();
+        profiler.stop(FrameProfiler.Phase.HUD_RENDER, start);
     }
 
     private void drawGameElements() {
+        camera.setWorld(frame.getWorldWidth(), frame.getWorldHeight());
+        pushMatrix();
+        translate(-camera.getScrollX(), -camera.getScrollY());
 
-
+        long start = profiler.start();
         drawBoard();
-        drawWalls();
+        profiler.stop(FrameProfiler.Phase.BOARD_RENDER, start);
+
+        start = profiler.start();
         drawLines();
         drawBalls();
+        profiler.stop(FrameProfiler.Phase.ENTITY_RENDER, start);
+
+        popMatrix();
+
+        start = profiler.start();
+        // The world scrolls under the top bar, so clear it before drawing the HUD
+        noStroke();
+        fill(123);
+        rect(0, 0, WIDTH, TOPBAR);
         displayBallQueue();
         displayTimer();
         displayScore();
+        profiler.stop(FrameProfiler.Phase.HUD_RENDER, start);
     }
 
+    /**
+     * Draws the latest and p99 time of every phase, plus the counters, over the board.
+     * Render phases and the frame come from the render profiler, the rest from the simulation's.
+     * The simulation's histograms are read while it records, so a figure may be a tick stale.
+     */
+    private void displayProfile() {
+        FrameProfiler.Phase[] phases = FrameProfiler.Phase.values();
+        FrameProfiler.Counter[] counters = FrameProfiler.Counter.values();
+        int lineHeight = 14;
+        int top = TOPBAR + 8;
 
+        noStroke();
+        fill(0, 0, 0, 180);
+        rect(8, top, 250, (phases.length + counters.length + 2) * lineHeight);
+
+        fill(255);
+        textSize(11);
+        textAlign(LEFT, TOP);
+        int y = top + 4;
+        text("phase            last ms   p99 ms", 14, y);
+        for (FrameProfiler.Phase phase : phases) {
+            y += lineHeight;
+            LatencyHistogram h = profilerFor(phase).getHistogram(phase);
+            text(String.format("%-15s %8.3f %8.3f", phase, h.getLast() / 1e6, h.percentile(0.99) / 1e6), 14, y);
+        }
+        y += lineHeight;
+        for (FrameProfiler.Counter counter : counters) {
+            y += lineHeight;
+            text(String.format("%-15s %d", counter, simulationProfiler.getCount(counter)), 14, y);
+        }
+    }
+
+    private FrameProfiler profilerFor(FrameProfiler.Phase phase) {
+        switch (phase) {
+            case BOARD_RENDER: case ENTITY_RENDER: case HUD_RENDER: case FRAME:
+                return profiler;
+            default:
+                return simulationProfiler;
+        }
+    }
+
+
+    /**
+     * Draws the visible part of the static board: tiles, holes, borders and walls.
+     * They never change within a level, so the board is split into square chunks, each
+     * rendered into an offscreen layer the first time it scrolls into view and dropped
+     * when the engine loads a level. Only chunks inside the camera are drawn.
+     */
     private void drawBoard() {
+        Board board = frame.getBoard();
+        int chunkRows = (board.getRows() + CHUNK_CELLS - 1) / CHUNK_CELLS;
+        boardChunkCols = (board.getCols() + CHUNK_CELLS - 1) / CHUNK_CELLS;
+        if (boardLayerVersion != frame.getLevelVersion()) {
+            boardChunks = new PGraphics[chunkRows * boardChunkCols];
+            boardLayerVersion = frame.getLevelVersion();
+        }
+
+        int lastChunkRow = Math.min(chunkRows - 1, camera.lastRow() / CHUNK_CELLS);
+        int lastChunkCol = Math.min(boardChunkCols - 1, camera.lastCol() / CHUNK_CELLS);
+        for (int chunkRow = camera.firstRow() / CHUNK_CELLS; chunkRow <= lastChunkRow; chunkRow++) {
+            for (int chunkCol = camera.firstCol() / CHUNK_CELLS; chunkCol <= lastChunkCol; chunkCol++) {
+                int index = chunkRow * boardChunkCols + chunkCol;
+                if (boardChunks[index] == null) {
+                    boardChunks[index] = renderBoardChunk(chunkRow, chunkCol);
+                }
+                image(boardChunks[index], chunkCol * CHUNK_CELLS * CELLSIZE,
+                        chunkRow * CHUNK_CELLS * CELLSIZE + TOPBAR);
+            }
+        }
+    }
+
+    private PGraphics renderBoardChunk(int chunkRow, int chunkCol) {
+        int size = CHUNK_CELLS * CELLSIZE;
+        int firstRow = chunkRow * CHUNK_CELLS;
+        int firstCol = chunkCol * CHUNK_CELLS;
+        PGraphics chunk = createGraphics(size, size);
+
+        chunk.beginDraw();
+        chunk.clear();
+        // Draw in world coordinates; anything outside the chunk is clipped
+        chunk.translate(-firstCol * CELLSIZE, -(firstRow * CELLSIZE + TOPBAR));
+
         // Layer 1: Draw base tiles
-        drawBaseTiles();
+        drawBaseTiles(chunk, firstRow, firstCol);
 
         // Layer 2: Draw holes
-        drawHoles();
+        drawHoles(chunk, firstRow, firstCol);
 
         // Layer 3: Draw borders/UI elements
-        drawBoardBorders();
+        drawBoardBorders(chunk, firstRow, firstCol);
+
+        // Layer 4: Draw walls
+        drawWalls(chunk, firstRow, firstCol);
+
+        chunk.endDraw();
+        return chunk;
     }
     /**
-     * Renders the base tile layer of the game board.
-     * Draws background tiles and spawner points across the entire game area.
+     * Renders the base tile layer of one board chunk.
+     * Draws background tiles and spawner points across the chunk.
      * Uses tile and spawner sprites from the sprite collection.
      */
-    private void drawBaseTiles() {
-        PImage tileSprite = getSprite("tile");
-        PImage spawnerSprite = getSprite("entrypoint");
+    private void drawBaseTiles(PGraphics g, int firstRow, int firstCol) {
+        Board board = frame.getBoard();
+        PImage tileSprite = sprites.get(SpriteId.TILE);
+        PImage spawnerSprite = sprites.get(SpriteId.ENTRYPOINT);
 
-        for (int row = 0; row < board.length; row++) {
-            for (int col = 0; col < board[row].length; col++) {
+        for (int row = firstRow; row < Math.min(board.getRows(), firstRow + CHUNK_CELLS); row++) {
+            for (int col = firstCol; col < Math.min(board.getCols(), firstCol + CHUNK_CELLS); col++) {
                 float x = col * CELLSIZE;
                 float y = row * CELLSIZE + TOPBAR;
 
                 // Draw base tile
-                image(tileSprite, x, y, CELLSIZE, CELLSIZE);
+                g.image(tileSprite, x, y, CELLSIZE, CELLSIZE);
 
                 // Draw spawner points on top if present
-                if (board[row][col].equals("entrypoint")) {
-                    image(spawnerSprite, x, y, CELLSIZE, CELLSIZE);
+                if (board.isEntrypoint(col, row)) {
+                    g.image(spawnerSprite, x, y, CELLSIZE, CELLSIZE);
                 }
             }
         }
     }
 
-    private void drawHoles() {
-        for (int row = 0; row < board.length; row++) {
-            for (int col = 0; col < board[row].length; col++) {
-                String spriteName = board[row][col];
-                if (spriteName != null && spriteName.startsWith("hole")) {
+    private void drawHoles(PGraphics g, int firstRow, int firstCol) {
+        Board board = frame.getBoard();
+        // Hole sprites are two cells wide, so holes in the row and column before the chunk reach into it
+        for (int row = Math.max(0, firstRow - 1); row < Math.min(board.getRows(), firstRow + CHUNK_CELLS); row++) {
+            for (int col = Math.max(0, firstCol - 1); col < Math.min(board.getCols(), firstCol + CHUNK_CELLS); col++) {
+                if (board.isHole(col, row)) {
                     float x = col * CELLSIZE;
                     float y = row * CELLSIZE + TOPBAR;
-                    PImage holeSprite = getSprite(spriteName);
+                    PImage holeSprite = sprites.get(SpriteId.hole(board.getColour(col, row)));
 
                     // Draw holes at double size
-                    image(holeSprite, x, y, CELLSIZE * 2, CELLSIZE * 2);
+                    g.image(holeSprite, x, y, CELLSIZE * 2, CELLSIZE * 2);
                 }
             }
         }
     }
 
-    private void drawBoardBorders() {
-        stroke(80); // Darker border color
-        strokeWeight(2);
-        noFill();
+    private void drawBoardBorders(PGraphics g, int firstRow, int firstCol) {
+        int worldWidth = frame.getWorldWidth();
+        int worldHeight = frame.getWorldHeight();
+        int left = firstCol * CELLSIZE;
+        int top = firstRow * CELLSIZE + TOPBAR;
+        int right = Math.min(worldWidth, left + CHUNK_CELLS * CELLSIZE);
+        int bottom = Math.min(worldHeight, top + CHUNK_CELLS * CELLSIZE);
+
+        g.stroke(80); // Darker border color
+        g.strokeWeight(2);
+        g.noFill();
 
         // Draw border around game area
-        rect(0, TOPBAR, WIDTH, HEIGHT - TOPBAR);
+        g.rect(0, TOPBAR, worldWidth, worldHeight - TOPBAR);
 
         // Draw grid lines (optional)
-        stroke(200, 100); // Light gray, semi-transparent
-        strokeWeight(1);
+        g.stroke(200, 100); // Light gray, semi-transparent
+        g.strokeWeight(1);
 
-        for (int x = 0; x <= WIDTH; x += CELLSIZE) {
-            line(x, TOPBAR, x, HEIGHT);
+        for (int x = left; x <= right; x += CELLSIZE) {
+            g.line(x, top, x, bottom);
         }
 
-        for (int y = TOPBAR; y <= HEIGHT; y += CELLSIZE) {
-            line(0, y, WIDTH, y);
+        for (int y = top; y <= bottom; y += CELLSIZE) {
+            g.line(left, y, right, y);
         }
     }
 
 
 
-    private void drawWalls() {
-        for (Wall wall : walls) {
-            wall.draw(this);
+    private void drawWalls(PGraphics g, int firstRow, int firstCol) {
+        Board board = frame.getBoard();
+        for (int row = firstRow; row < Math.min(board.getRows(), firstRow + CHUNK_CELLS); row++) {
+            for (int col = firstCol; col < Math.min(board.getCols(), firstCol + CHUNK_CELLS); col++) {
+                if (board.isWall(col, row)) {
+                    g.image(sprites.get(SpriteId.wall(board.getColour(col, row))),
+                            col * CELLSIZE, row * CELLSIZE + TOPBAR, CELLSIZE, CELLSIZE);
+                }
+            }
         }
     }
 
@@ -641,33 +462,37 @@ public class App extends PApplet {
     private void drawLines() {
 
         //draw lines if time not up
-        if (!timeUp) {
+        if (!frame.isTimeUp()) {
             stroke(0);  // line colour
-            strokeWeight(10);  // line thickness
-            for (Line line : lines) {
-                line.draw(this);
-            }
-
-            //draw line if exists
-            if (currentLine != null) {
-                currentLine.draw(this);
+            strokeWeight(Line.HALF_THICKNESS * 2);  // line thickness
+            // Placed lines, then the stroke being drawn if there is one
+            for (int line = 0; line < frame.getLineCount(); line++) {
+                float reach = Line.HALF_THICKNESS;
+                if (!camera.isVisible(frame.getLineMinX(line) - reach, frame.getLineMinY(line) - reach,
+                        frame.getLineMaxX(line) + reach, frame.getLineMaxY(line) + reach)) {
+                    continue;
+                }
+                for (int point = frame.getLineStart(line); point < frame.getLineEnd(line) - 1; point++) {
+                    line(frame.getPointX(point), frame.getPointY(point),
+                            frame.getPointX(point + 1), frame.getPointY(point + 1));
+                }
             }
         }
     }
 
 
     private void drawBalls() {
-
-        //List to store removed balls
-        List<Ball> ballsToRemove = new ArrayList<>();
-
-        //iterate through each ball
-        for (Ball ball : balls) {
-            updateBalls(ball, ballsToRemove);
+        float alpha = frame.getAlpha(System.nanoTime());
+        for (int i = 0; i < frame.getBallCount(); i++) {
+            float radius = frame.getBallRadius(i);
+            float x = frame.getBallX(i, alpha);
+            float y = frame.getBallY(i, alpha);
+            if (!camera.isVisible(x - radius, y - radius, x + radius, y + radius)) {
+                continue;
+            }
+            image(sprites.get(SpriteId.ball(frame.getBallColour(i))), x - radius, y - radius,
+                    2 * radius, 2 * radius);
         }
-
-        //remove balls marked for removal
-        balls.removeAll(ballsToRemove);
     }
 
     /**
@@ -697,6 +522,12 @@ public class App extends PApplet {
     }
 
     private void updateQueueOffset() {
+        int spawnCount = frame.getSpawnCount();
+        if (spawnCount > spawnsSeen) {
+            queueOffset += (spawnCount - spawnsSeen) * QueueDisplay.BALL_SPACING;
+        }
+        spawnsSeen = spawnCount;
+
         if (queueOffset > 0) {
             queueOffset--;
         }
@@ -710,34 +541,23 @@ public class App extends PApplet {
 
         // Draw upcoming balls
         drawUpcomingBalls(startX);
-
-        // Update queue state
-        updateQueueState();
     }
 
     private void drawLastEmittedBall(int startX) {
-        if (!lastBallColor.isEmpty()) {
-            PImage sprite = getSprite("ball" + lastBallColor);
-            if (sprite != null) {
-                image(sprite, startX - QueueDisplay.BALL_SPACING, QueueDisplay.QUEUE_START_Y, CELLSIZE, CELLSIZE);
-            }
+        int lastBallColour = frame.getLastBallColour();
+        if (lastBallColour >= 0) {
+            PImage sprite = sprites.get(SpriteId.ball(lastBallColour));
+            image(sprite, startX - QueueDisplay.BALL_SPACING, QueueDisplay.QUEUE_START_Y, CELLSIZE, CELLSIZE);
         }
     }
 
     private void drawUpcomingBalls(int startX) {
-        String[] queueArray = ballColoursToSpawn.toArray(new String[0]);
-        for (int i = 0; i < queueArray.length; i++) {
-            PImage sprite = getSprite("ball" + queueArray[i]);
-            if (sprite != null) {
-                float x = startX + i * QueueDisplay.BALL_SPACING;
-                image(sprite, x, QueueDisplay.QUEUE_START_Y, CELLSIZE, CELLSIZE);
-            }
-        }
-    }
-
-    private void updateQueueState() {
-        if (ballColoursToSpawn.isEmpty() && spawnTimer == 0) {
-            lastBallColor = "";
+        int queueRight = 18 + QueueDisplay.QUEUE_WIDTH;
+        // Balls past the right edge of the queue are hidden by its border, so stop there
+        for (int i = 0; i < frame.getQueueLength() && startX + i * QueueDisplay.BALL_SPACING < queueRight; i++) {
+            PImage sprite = sprites.get(SpriteId.ball(frame.getQueuedColour(i)));
+            float x = startX + i * QueueDisplay.BALL_SPACING;
+            image(sprite, x, QueueDisplay.QUEUE_START_Y, CELLSIZE, CELLSIZE);
         }
     }
 
@@ -757,7 +577,10 @@ public class App extends PApplet {
 
         //display message on game state
         //pause message
-        if (paused) {
+        boolean timeUp = frame.isTimeUp();
+        boolean gameEnded = frame.isGameEnded();
+        boolean gameFinished = frame.isGameFinished();
+        if (frame.isPaused()) {
             fill(256, 0, 0);
             textAlign(CENTER, CENTER);
             textSize(20);
@@ -780,255 +603,23 @@ public class App extends PApplet {
     }
 
 
-    private static class ScoreManager {
-        private static final int SCORE_INCREMENT_FRAME_INTERVAL = 2;
-
-        static void updateScore(App app) {
-            if (app.incrementedTime >= app.timeRemaining) {
-                finishScoreIncrement(app);
-                return;
-            }
-
-            if (app.frameCount % SCORE_INCREMENT_FRAME_INTERVAL == 0) {
-                incrementScore(app);
-            } else {
-                app.animateTiles(0);
-            }
-            app.displayScore();
-        }
-
-        private static void incrementScore(App app) {
-            app.score++;
-            app.incrementedTime++;
-            app.animateTiles(1);
-        }
-
-        private static void finishScoreIncrement(App app) {
-            app.incrementingScore = false;
-            app.animationTriggered = false;
-            app.timeRemaining = 0;
-        }
-    }
     private void displayTimer() {
         // Main timer
-        setTextProperties(16, RIGHT, CENTER);
-        text("Time: " + timeRemaining, WIDTH - 30, 40);
+        timeField.setInt(frame.getTimeRemaining());
+        hudFont.draw(this, timeField, WIDTH - 30, 40, RIGHT);
 
-        // Spawn countdown timer
-        setTextProperties(14, LEFT, CENTER);
-        String countdownDisplay = String.format("%.1f", spawnTimer / (float) FPS);
-        text(countdownDisplay, countdownX, countdownY);
+        // Spawn countdown timer, in seconds to one decimal place
+        int spawnTimer = frame.getSpawnTimer();
+        int tenths = Math.round(Math.abs(spawnTimer) * 10f / frame.getTicksPerSecond());
+        countdownField.setTenths(spawnTimer < 0 ? -tenths : tenths);
+        countdownFont.draw(this, countdownField, countdownX, countdownY, LEFT);
     }
 
     private void displayScore() {
-        setTextProperties(16, RIGHT, CENTER);
-        text("Score: " + score, WIDTH - 30, 20);
-    }
-
-    private void setTextProperties(int size, int alignX, int alignY) {
-        fill(0);
-        textSize(size);
-        textAlign(alignX, alignY);
-    }
-
-    private static class DisplayManager {
-        private static void renderTimer(App app) {
-            app.setupTextStyle(16, app.RIGHT, app.CENTER, 0);
-            app.text("Time: " + app.timeRemaining, app.WIDTH - 30, 40);
-
-            app.setupTextStyle(14, app.LEFT, app.CENTER, 0);
-            app.text(String.format("%.1f", app.spawnTimer / (float) app.FPS),
-                    app.countdownX, app.countdownY);
-        }
-
-        private static void renderScore(App app) {
-            app.setupTextStyle(16, app.RIGHT, app.CENTER, 0);
-            app.text("Score: " + app.score, app.WIDTH - 30, 20);
-        }
-    }
-
-    private void setupTextStyle(int size, int alignX, int alignY, int color) {
-        fill(color);
-        textSize(size);
-        textAlign(alignX, alignY);
-    }
-
-    private void updateBalls(Ball ball, List<Ball> ballsToRemove) {
-        updateBallState(ball);
-        handleBallInteractions(ball, ballsToRemove);
-        ball.draw(this);
-    }
-
-    private void updateBallState(Ball ball) {
-        if (!paused && !timeUp) {
-            ball.updatePosition();
-        }
-        ball.checkCollisions(walls, sprites);
-    }
-    /**
-     * Defines possible outcomes when a ball collides with a hole.
-     * CORRECT_HOLE (1): Ball matches hole color
-     * WRONG_HOLE (-1): Ball doesn't match hole color
-     * NO_COLLISION (0): No hole collision occurred
-     */
-    private enum CollisionResult {
-        CORRECT_HOLE(1),
-        WRONG_HOLE(-1),
-        NO_COLLISION(0);
-
-        private final int value;
-        CollisionResult(int value) { this.value = value; }
-
-        static CollisionResult fromValue(int value) {
-            for (CollisionResult result : values()) {
-                if (result.value == value) return result;
-            }
-            return NO_COLLISION;
-        }
-    }
-
-    private void handleBallInteractions(Ball ball, List<Ball> ballsToRemove) {
-        int ballColor = ball.getColourNumber();
-
-        handleLineCollisions(ball);
-        handleHoleCollisions(ball, ballColor, ballsToRemove);
+        scoreField.setInt(frame.getScore());
+        hudFont.draw(this, scoreField, WIDTH - 30, 20, RIGHT);
     }
 
-    private void handleLineCollisions(Ball ball) {
-        for (int i = lines.size() - 1; i >= 0; i--) {
-            if (lines.get(i).handleCollision(ball)) {
-                lines.remove(i);
-                break;
-            }
-        }
-    }
-    /**
-     * Processes ball collisions with holes, updating game state and score.
-     * Handles both correct and incorrect hole collisions with appropriate score adjustments.
-     * @param ball The ball involved in the collision
-     * @param ballColor Color of the ball
-     * @param ballsToRemove List to track balls that should be removed
-     */
-    private void handleHoleCollisions(Ball ball, int ballColor, List<Ball> ballsToRemove) {
-        CollisionResult result = CollisionResult.fromValue(ball.checkHole(holeCentres, ballColor));
-
-        switch (result) {
-            case CORRECT_HOLE:
-                handleCorrectHole(ball, ballColor, ballsToRemove);
-                break;
-
-            case WRONG_HOLE:
-                handleWrongHole(ball, ballColor, ballsToRemove);
-                break;
-
-            default:
-                // Ball continues moving
-                break;
-        }
-    }
-
-    private void handleCorrectHole(Ball ball, int ballColor, List<Ball> ballsToRemove) {
-        increaseScore(ballColor);
-        ballsToRemove.add(ball);
-    }
-
-    private void handleWrongHole(Ball ball, int ballColor, List<Ball> ballsToRemove) {
-        decreaseScore(ballColor);
-        ballsToRemove.add(ball);
-        ballColoursToSpawn.add(String.valueOf(ballColor));
-        spawnTimer = spawnInterval * FPS;
-    }
-
-
-    private enum ScoreAction {
-        INCREASE(1),
-        DECREASE(-1);
-
-        private final int multiplier;
-        ScoreAction(int multiplier) { this.multiplier = multiplier; }
-    }
-
-    private void updateScore(int ballColor, ScoreAction action) {
-        String colorName = getNumber(ballColor);
-        Map<String, Integer> valueMap = (action == ScoreAction.INCREASE) ?
-                scoreIncreaseValues : scoreDecreaseValues;
-        int modifier = (int) ((action == ScoreAction.INCREASE) ?
-                        scoreIncreaseModifier : scoreDecreaseModifier);
-
-        if (valueMap.containsKey(colorName)) {
-            int changeValue = valueMap.get(colorName) * modifier * action.multiplier;
-            score += changeValue;
-        } else {
-            System.out.println("Invalid color name: " + colorName);
-        }
-    }
-
-    private void increaseScore(int ballColor) {
-        updateScore(ballColor, ScoreAction.INCREASE);
-    }
-
-    private void decreaseScore(int ballColor) {
-        updateScore(ballColor, ScoreAction.DECREASE);
-    }
-
-    private void checkLevelCompletion() {
-        if (!isLevelComplete()) return;
-
-        handleTimeBonus();
-
-        if (!incrementingScore) {
-            progressLevel();
-        }
-    }
-
-    private boolean isLevelComplete() {
-        return balls.isEmpty() && ballColoursToSpawn.isEmpty();
-    }
-
-    private void handleTimeBonus() {
-        if (!gameEnded && timeRemaining > 0 && !incrementingScore) {
-            System.out.println("time remaining: " + timeRemaining + " " + incrementingScore);
-            incrementingScore = true;
-            incrementedTime = 0;
-            animationTriggered = false;
-        }
-    }
-
-    private void progressLevel() {
-        if (isLastLevel()) {
-            endGame();
-        } else {
-            loadNextLevel();
-        }
-    }
-
-    private void endGame() {
-        gameEnded = true;
-        gameFinished = true;
-    }
-
-    private void loadNextLevel() {
-        currentLevelIndex++;
-        resetLevelState();
-        clearGameObjects();
-        loadLevelData(currentLevelIndex);
-    }
-
-    private void resetLevelState() {
-        levelEnded = false;
-        timeUp = false;
-        gameFinished = false;
-        incrementingScore = false;
-        animationTriggered = true;
-        incrementedTime = 0;
-    }
-
-    private void clearGameObjects() {
-        balls.clear();
-        lines.clear();
-    }
-
-
     private enum Direction {
         RIGHT(1, 0),
         DOWN(0, 1),
@@ -1086,7 +677,7 @@ public class App extends PApplet {
         private PImage sprite;
 
         TileAnimation() {
-            sprite = getSprite("wall4");
+            sprite = sprites.get(SpriteId.WALL4);
             topLeft = new AnimatedTile(0, 0, Direction.RIGHT);
             bottomRight = new AnimatedTile(GRID_SIZE, GRID_SIZE, Direction.LEFT);
         }
@@ -1102,156 +693,59 @@ public class App extends PApplet {
             isActive = true;
         }
 
-        void update(boolean shouldMove) {
+        /**
+         * Draws the tiles where they are, then moves them on
+         * @param steps Cells to move each tile; the tiles are drawn once however many
+         */
+        void update(int steps) {
             if (!isActive) return;
 
             topLeft.draw(sprite);
             bottomRight.draw(sprite);
 
-            if (!shouldMove) return;
+            for (int i = 0; i < steps; i++) {
+                topLeft.move();
+                bottomRight.move();
 
-            topLeft.move();
-            bottomRight.move();
-
-            stepCounter++;
-            if (stepCounter >= GRID_SIZE) {
-                stepCounter = 0;
-                topLeft.changeDirection();
-                bottomRight.changeDirection();
+                stepCounter++;
+                if (stepCounter >= GRID_SIZE) {
+                    stepCounter = 0;
+                    topLeft.changeDirection();
+                    bottomRight.changeDirection();
+                }
             }
         }
     }
 
 
 
-    private void animateTiles(int shouldMove) {
-        if (!animationTriggered) {
-            tileAnimation.reset();
-            animationTriggered = true;
-        }
-
-        tileAnimation.update(shouldMove == 1);
-    }
-
-
-
-    private boolean isLastLevel() {
-        return currentLevelIndex >= levels.size() - 1;
-    }
-
     /**
-     * Manages ball spawning mechanics including random spawn location selection,
-     * ball creation with initial velocities, and queue management.
-     * Provides controlled access to spawn new balls into the game.
+     * Plays the perimeter tile animation while remaining time is converted into score.
      */
-    private class BallSpawner {
-        private static final float INITIAL_VELOCITY = 2.0f;
-        private static final int QUEUE_OFFSET_INCREMENT = 34;
-
-        private final Random random = new Random();
-
-        // Simple helper class for spawn coordinates
-        private class SpawnLocation {
-            private final float x;
-            private final float y;
-
-            public SpawnLocation(int[] location) {
-                this.x = location[0];
-                this.y = location[1];
-            }
-
-            public float getX() { return x; }
-            public float getY() { return y; }
-        }
-
-        private SpawnLocation getRandomSpawnLocation() {
-            int[] location = spawnerLocations.get(random.nextInt(spawnerLocations.size()));
-            return new SpawnLocation(location);
-        }
-
-        private Ball createBall(SpawnLocation spawn, String colorString) {
-            String spriteName = "ball" + colorString;
-            PImage sprite = getSprite(spriteName);
-
-            return new Ball(
-                    spawn.getX(),
-                    spawn.getY(),
-                    randomVelocity(),
-                    randomVelocity(),
-                    spriteName,
-                    sprite
-            );
-        }
-
-        private float randomVelocity() {
-            return random.nextBoolean() ? INITIAL_VELOCITY : -INITIAL_VELOCITY;
+    private void drawTileAnimation() {
+        int bonusSteps = frame.getBonusSteps();
+        if (!frame.isIncrementingScore()) {
+            animationTriggered = false;
+            bonusStepsSeen = bonusSteps;
+            return;
         }
 
-        public boolean spawn() {
-            if (spawnerLocations.isEmpty() || ballColoursToSpawn.isEmpty()) {
-                return false;
-            }
-
-            SpawnLocation spawnLocation = getRandomSpawnLocation();
-            String colorString = ballColoursToSpawn.poll();
-
-            Ball newBall = createBall(spawnLocation, colorString);
-            balls.add(newBall);
-
-            lastBallColor = colorString;
-            currentBallIndex++;
-            queueOffset += QUEUE_OFFSET_INCREMENT;
-
-            return true;
-        }
+        // Frames and ticks no longer line up, so move once per bonus step since the last frame
+        animateTiles(Math.max(0, bonusSteps - bonusStepsSeen));
+        bonusStepsSeen = bonusSteps;
     }
 
-    private final BallSpawner ballSpawner = new BallSpawner();
-
-    private void spawnBall() {
-        ballSpawner.spawn();
-    }
-    private int getColour(String colourName) {
-
-
-        switch (colourName.toLowerCase()) {
-            case "orange":
-                return 1;
-            case "blue":
-                return 2;
-            case "green":
-                return 3;
-            case "yellow":
-                return 4;
-            case "grey":
-                return 0;
-            default:
-                return 0;
+    private void animateTiles(int steps) {
+        if (!animationTriggered) {
+            tileAnimation.reset();
+            animationTriggered = true;
         }
-    }
 
-
-    private String getNumber(int colorNumber) {
-
-        switch (colorNumber) {
-            case 0:
-                return "grey";
-            case 1:
-                return "orange";
-            case 2:
-                return "blue";
-            case 3:
-                return "green";
-            case 4:
-                return "yellow";
-            default:
-                return "grey";
-        }
+        tileAnimation.update(steps);
     }
 
 
 
-
     public static void main(String[] args) {
 
         PApplet.main("inkball.App");
@@ -0,0 +1,22 @@
+package inkball;
+
+/**
+ * Per-ball math over BallStore's packed arrays, applied to a range of balls.
+ * Every implementation must give bit-for-bit the same results as ScalarBallKernel,
+ * so the kernel in use never changes how a game plays out.
+ */
+interface BallKernel {
+    /** Moves balls by their velocity */
+    void integrate(float[] x, float[] y, float[] vx, float[] vy, int from, int to);
+
+    /** Reverses the velocity of balls reaching past an edge of the given rectangle, per axis */
+    void reflectOffBounds(float[] x, float[] y, float[] vx, float[] vy, float[] radius, int from, int to,
+                          float minX, float minY, float maxX, float maxY);
+
+    /**
+     * Finds, for each ball, the first hole whose squared distance is within range
+     * @param result Receives the hole index for each ball, or -1, at the ball's index
+     */
+    void findHoles(float[] x, float[] y, int from, int to,
+                   float[] holeX, float[] holeY, int holes, float rangeSquared, int[] result);
+}
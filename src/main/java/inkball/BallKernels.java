@@ -0,0 +1,101 @@
+package inkball;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Chooses the BallKernel balls are stepped with. The Vector API kernel is used when its
+ * classes and the jdk.incubator.vector module are present and it reproduces the scalar
+ * kernel bit for bit on a self-test; otherwise, or with -Dinkball.kernel=scalar,
+ * stepping stays scalar.
+ */
+final class BallKernels {
+    static final BallKernel SCALAR = new ScalarBallKernel();
+    private static final BallKernel PREFERRED = choose();
+
+    private BallKernels() {
+    }
+
+    /** @return The fastest kernel that matches the scalar one */
+    static BallKernel preferred() {
+        return PREFERRED;
+    }
+
+    /** @return A new Vector API kernel, or null if it cannot be loaded */
+    static BallKernel vector() {
+        try {
+            return (BallKernel) Class.forName("inkball.VectorBallKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static BallKernel choose() {
+        if ("scalar".equals(System.getProperty("inkball.kernel"))) {
+            return SCALAR;
+        }
+        BallKernel vector = vector();
+        return vector != null && matchesScalar(vector, 0x1CE) ? vector : SCALAR;
+    }
+
+    /**
+     * Runs a kernel and the scalar kernel on the same random balls and holes, including
+     * balls straddling the bounds and hole ranges, and an odd count to cover the tail loop
+     * @param kernel Kernel to check
+     * @param seed Seed for the test data
+     * @return true if every output is bit-for-bit identical
+     */
+    static boolean matchesScalar(BallKernel kernel, long seed) {
+        Random random = new Random(seed);
+        int count = 203;
+        int holeCount = 7;
+        float[][] expected = randomBalls(random, count);
+        float[][] actual = new float[expected.length][];
+        for (int a = 0; a < expected.length; a++) {
+            actual[a] = expected[a].clone();
+        }
+        float[] holeX = new float[holeCount];
+        float[] holeY = new float[holeCount];
+        for (int h = 0; h < holeCount; h++) {
+            holeX[h] = random.nextFloat() * App.WIDTH;
+            holeY[h] = App.TOPBAR + random.nextFloat() * (App.HEIGHT - App.TOPBAR);
+        }
+        float range = HoleRegistry.HOLE_RANGE * HoleRegistry.HOLE_RANGE;
+        int from = 3;
+
+        for (int step = 0; step < 4; step++) {
+            SCALAR.integrate(expected[0], expected[1], expected[2], expected[3], from, count);
+            kernel.integrate(actual[0], actual[1], actual[2], actual[3], from, count);
+            SCALAR.reflectOffBounds(expected[0], expected[1], expected[2], expected[3], expected[4],
+                    from, count, 0, App.TOPBAR, App.WIDTH, App.HEIGHT);
+            kernel.reflectOffBounds(actual[0], actual[1], actual[2], actual[3], actual[4],
+                    from, count, 0, App.TOPBAR, App.WIDTH, App.HEIGHT);
+        }
+        int[] expectedHoles = new int[count];
+        int[] actualHoles = new int[count];
+        SCALAR.findHoles(expected[0], expected[1], from, count, holeX, holeY, holeCount, range, expectedHoles);
+        kernel.findHoles(actual[0], actual[1], from, count, holeX, holeY, holeCount, range, actualHoles);
+
+        for (int a = 0; a < expected.length; a++) {
+            for (int i = 0; i < count; i++) {
+                if (Float.floatToIntBits(expected[a][i]) != Float.floatToIntBits(actual[a][i])) {
+                    return false;
+                }
+            }
+        }
+        return Arrays.equals(expectedHoles, actualHoles);
+    }
+
+    /** @return x, y, vx, vy and radius arrays for balls spread over and just beyond the window */
+    private static float[][] randomBalls(Random random, int count) {
+        float[][] balls = new float[5][count];
+        for (int i = 0; i < count; i++) {
+            balls[0][i] = random.nextFloat() * (App.WIDTH + 40) - 20;
+            balls[1][i] = App.TOPBAR - 20 + random.nextFloat() * (App.HEIGHT - App.TOPBAR + 40);
+            balls[2][i] = (random.nextFloat() - 0.5f) * 20;
+            balls[3][i] = (random.nextFloat() - 0.5f) * 20;
+            balls[4][i] = 4 + random.nextInt(13);
+        }
+        return balls;
+    }
+}
@@ -0,0 +1,442 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * Packed storage for live balls, one primitive array per attribute.
+ * Balls are addressed by index; removing a ball moves the last ball into its slot,
+ * so indices are only stable until the next removal.
+ * Stepping runs as tight loops over the arrays and allocates nothing.
+ */
+public class BallStore {
+    /** Hole pull in pixels per second squared for every pixel between a ball and the hole centre */
+    private static final float ATTRACTION = 4.5f;
+    private static final float CAPTURE_RANGE = 15.0f;
+    /** Seconds after a wall bounce before the ball may bounce off a wall again */
+    private static final float COLLISION_COOLDOWN = 1 / 15f;
+    /** Most surfaces a ball may bounce off within one swept step */
+    private static final int MAX_SWEEP_BOUNCES = 4;
+    /** Above this many holes a ball looks its hole up by cell instead of testing them all */
+    private static final int SCAN_HOLE_LIMIT = 16;
+    private static final int HIT_NONE = 0, HIT_EDGE_X = 1, HIT_EDGE_Y = 2, HIT_WALL = 3, HIT_LINE = 4;
+
+    private float[] x;
+    private float[] y;
+    /** Position at the start of the current tick, for interpolating between ticks */
+    private float[] previousX;
+    private float[] previousY;
+    private float[] vx;
+    private float[] vy;
+    private float[] radius;
+    private byte[] colour;
+    /** Ticks left before the ball may collide with a wall again */
+    private byte[] collisionBuffer;
+    /** ATTRACTION as a change in pixels per tick, per tick, per pixel of distance */
+    private final float attractionPerTick;
+    /** COLLISION_COOLDOWN in whole ticks, at least one */
+    private final byte cooldownTicks;
+    private int count;
+    /** Right and bottom edges balls bounce off; the left edge is 0 and the top is App.TOPBAR */
+    private float boundsWidth = App.WIDTH;
+    private float boundsHeight = App.HEIGHT;
+    /** Vector or scalar math for whole ranges of balls */
+    private BallKernel kernel = BallKernels.preferred();
+
+    /**
+     * Creates an empty store stepped at GameEngine.DEFAULT_TICKS_PER_SECOND
+     * @param capacity Initial number of slots; the store grows as needed
+     */
+    public BallStore(int capacity) {
+        this(capacity, GameEngine.DEFAULT_TICKS_PER_SECOND);
+    }
+
+    /**
+     * Creates an empty store
+     * @param capacity Initial number of slots; the store grows as needed
+     * @param ticksPerSecond Ticks the balls are stepped per second, which sets the per-tick hole pull and cooldown
+     */
+    public BallStore(int capacity, int ticksPerSecond) {
+        attractionPerTick = ATTRACTION / ((float) ticksPerSecond * ticksPerSecond);
+        cooldownTicks = (byte) Math.max(1, Math.round(COLLISION_COOLDOWN * ticksPerSecond));
+        capacity = Math.max(capacity, 1);
+        x = new float[capacity];
+        y = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        radius = new float[capacity];
+        colour = new byte[capacity];
+        collisionBuffer = new byte[capacity];
+    }
+
+    /**
+     * Adds a ball at full size
+     * @param centreX Screen x-coordinate of the ball centre
+     * @param centreY Screen y-coordinate of the ball centre
+     * @param velocityX Horizontal velocity in pixels per tick
+     * @param velocityY Vertical velocity in pixels per tick
+     * @param colourNumber Ball colour, 0 (grey) to 4
+     * @return Index of the new ball
+     */
+    public int add(float centreX, float centreY, float velocityX, float velocityY, int colourNumber) {
+        if (count == x.length) {
+            grow();
+        }
+        int i = count++;
+        x[i] = centreX;
+        y[i] = centreY;
+        previousX[i] = centreX;
+        previousY[i] = centreY;
+        vx[i] = velocityX;
+        vy[i] = velocityY;
+        radius[i] = App.CELLSIZE / 2;
+        colour[i] = (byte) colourNumber;
+        collisionBuffer[i] = 0;
+        return i;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        colour = Arrays.copyOf(colour, capacity);
+        collisionBuffer = Arrays.copyOf(collisionBuffer, capacity);
+    }
+
+    /**
+     * Removes a ball by moving the last ball into its slot
+     * @param i Index of the ball to remove
+     */
+    public void remove(int i) {
+        int last = --count;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            previousX[i] = previousX[last];
+            previousY[i] = previousY[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            radius[i] = radius[last];
+            colour[i] = colour[last];
+            collisionBuffer[i] = collisionBuffer[last];
+        }
+    }
+
+    /** Removes every ball */
+    public void clear() {
+        count = 0;
+    }
+
+    /** Records every ball's position as its position at the start of the tick */
+    public void savePositions() {
+        System.arraycopy(x, 0, previousX, 0, count);
+        System.arraycopy(y, 0, previousY, 0, count);
+    }
+
+    /** Moves every ball by its velocity */
+    public void integrate() {
+        integrate(0, count);
+    }
+
+    /**
+     * Moves a range of balls by their velocity
+     * @param from First index, inclusive
+     * @param to Last index, exclusive
+     */
+    public void integrate(int from, int to) {
+        kernel.integrate(x, y, vx, vy, from, to);
+    }
+
+    /**
+     * Bounces every ball off the screen edges and nearby walls
+     * @param wallField Distance to the walls of the level
+     */
+    public void checkCollisions(WallField wallField) {
+        checkCollisions(wallField, 0, count);
+    }
+
+    /**
+     * Bounces a range of balls off the screen edges and nearby walls.
+     * Only the balls in the range are written, so disjoint ranges may run concurrently.
+     * @param wallField Distance to the walls of the level
+     * @param from First index, inclusive
+     * @param to Last index, exclusive
+     * @return Number of balls that bounced off a wall
+     */
+    public int checkCollisions(WallField wallField, int from, int to) {
+        // Each ball's edge bounce only depends on that ball, so all edges go first in one pass
+        kernel.reflectOffBounds(x, y, vx, vy, radius, from, to, 0, App.TOPBAR, boundsWidth, boundsHeight);
+        int hits = 0;
+        for (int i = from; i < to; i++) {
+            if (collisionBuffer[i] == 0) {
+                if (checkWallCollision(i, wallField)) {
+                    hits++;
+                }
+            } else {
+                collisionBuffer[i]--;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Looks up the wall nearest the ball's centre and, if the ball touches it while moving
+     * into it, reflects the velocity about the wall's normal and recolours the ball
+     */
+    private boolean checkWallCollision(int i, WallField wallField) {
+        int sample = wallField.sample(x[i], y[i]);
+        if (sample < 0 || wallField.getDistance(sample) > radius[i]) {
+            return false;
+        }
+        float nx = wallField.getNormalX(sample);
+        float ny = wallField.getNormalY(sample);
+        float dot = vx[i] * nx + vy[i] * ny;
+        if (dot >= 0) {
+            return false; // already leaving the wall
+        }
+        vx[i] -= 2 * dot * nx;
+        vy[i] -= 2 * dot * ny;
+        colour[i] = Colour.afterWallHit(wallField.getColour(sample), colour[i]);
+        collisionBuffer[i] = cooldownTicks;
+        return true;
+    }
+
+    /** Takes on the colour of a coloured wall; grey walls leave the ball unchanged */
+    private void recolour(int i, Wall wall) {
+        colour[i] = Colour.afterWallHit(wall.getColourNumber(), colour[i]);
+    }
+
+    /**
+     * Moves a ball over dt ticks of its velocity, stopping at the first screen edge, wall or line
+     * it would touch and reflecting there, then carrying on with the rest of the motion.
+     * Unlike integrate plus checkCollisions, no speed or step size lets a ball pass through
+     * a wall or line, and no cooldown is needed.
+     * Only ball i is written and lines are only read, so different balls may be swept concurrently.
+     * @param i Index of the ball
+     * @param wallGrid Walls indexed by board cell
+     * @param segments Lines to collide with, or null for none
+     * @param dt Ticks of motion
+     * @return The first line segment the ball bounced off, or null; the caller removes that line
+     */
+    SegmentGrid.Segment sweep(int i, WallGrid wallGrid, SegmentGrid segments, float dt) {
+        SegmentGrid.Segment lineHit = null;
+        float remaining = dt;
+        for (int bounce = 0; bounce < MAX_SWEEP_BOUNCES && remaining > 0; bounce++) {
+            float r = radius[i];
+            float px = x[i], py = y[i];
+            float mx = vx[i] * remaining, my = vy[i] * remaining;
+
+            float first = 1;
+            int hit = HIT_NONE;
+            float t;
+            if ((t = edgeTime(px - r, -mx)) < first || (t = edgeTime(boundsWidth - px - r, mx)) < first) {
+                first = t;
+                hit = HIT_EDGE_X;
+            }
+            if ((t = edgeTime(py - r - App.TOPBAR, -my)) < first || (t = edgeTime(boundsHeight - py - r, my)) < first) {
+                first = t;
+                hit = HIT_EDGE_Y;
+            }
+
+            Wall wall = null;
+            int wallCol = 0, wallRow = 0;
+            int minCol = (int) Math.floor((Math.min(px, px + mx) - r) / App.CELLSIZE);
+            int maxCol = (int) Math.floor((Math.max(px, px + mx) + r) / App.CELLSIZE);
+            int minRow = (int) Math.floor((Math.min(py, py + my) - r - App.TOPBAR) / App.CELLSIZE);
+            int maxRow = (int) Math.floor((Math.max(py, py + my) + r - App.TOPBAR) / App.CELLSIZE);
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    Wall candidate = wallGrid.get(col, row);
+                    if (candidate == null) continue;
+
+                    float left = col * App.CELLSIZE;
+                    float top = row * App.CELLSIZE + App.TOPBAR;
+                    t = SweptCollision.circleBox(px, py, mx, my, r, left, top, left + App.CELLSIZE, top + App.CELLSIZE);
+                    if (t < first) {
+                        first = t;
+                        hit = HIT_WALL;
+                        wall = candidate;
+                        wallCol = col;
+                        wallRow = row;
+                    }
+                }
+            }
+
+            SegmentGrid.Segment segment = null;
+            if (segments != null && lineHit == null) {
+                segment = segments.findSweptCollision(px, py, mx, my, r);
+                if (segment != null && (t = segment.line.sweptTime(segment.index, px, py, mx, my, r)) < first) {
+                    first = t;
+                    hit = HIT_LINE;
+                }
+            }
+
+            x[i] = px + mx * first;
+            y[i] = py + my * first;
+            remaining *= 1 - first;
+
+            switch (hit) {
+                case HIT_EDGE_X:
+                    vx[i] *= -1;
+                    break;
+                case HIT_EDGE_Y:
+                    vy[i] *= -1;
+                    break;
+                case HIT_WALL:
+                    reflectOffCell(i, wallCol, wallRow);
+                    recolour(i, wall);
+                    break;
+                case HIT_LINE:
+                    segment.line.reflect(segment.index, this, i);
+                    lineHit = segment;
+                    break;
+                default:
+                    return lineHit;
+            }
+        }
+        return lineHit;
+    }
+
+    /**
+     * @param gap Distance left before the ball's edge reaches a screen edge
+     * @param closing How far the ball moves towards it over the step
+     * @return Fraction of the step at which it touches, or NO_HIT
+     */
+    private static float edgeTime(float gap, float closing) {
+        if (closing <= 0) return SweptCollision.NO_HIT;
+        return gap <= 0 ? 0 : gap / closing;
+    }
+
+    /** Reflects the velocity about the normal from the nearest point of a wall cell to the ball */
+    private void reflectOffCell(int i, int col, int row) {
+        float left = col * App.CELLSIZE;
+        float top = row * App.CELLSIZE + App.TOPBAR;
+        float nx = x[i] - Math.max(left, Math.min(left + App.CELLSIZE, x[i]));
+        float ny = y[i] - Math.max(top, Math.min(top + App.CELLSIZE, y[i]));
+        float length = (float) Math.sqrt(nx * nx + ny * ny);
+        if (length == 0) {
+            vx[i] *= -1;
+            vy[i] *= -1;
+            return;
+        }
+        nx /= length;
+        ny /= length;
+        float dot = vx[i] * nx + vy[i] * ny;
+        vx[i] -= 2 * dot * nx;
+        vy[i] -= 2 * dot * ny;
+    }
+
+    /**
+     * Pulls a ball towards the first hole within range and shrinks it on approach.
+     * Only ball i is written, so different balls may be checked concurrently.
+     * @param i Index of the ball
+     * @param holes Holes of the current level
+     * @return 1 for correct capture, -1 for wrong capture, 0 for no capture
+     */
+    public int checkHole(int i, HoleRegistry holes) {
+        return checkHole(i, holes, holes.findInRange(x[i], y[i]));
+    }
+
+    /**
+     * Finds the hole in range of each ball in a range, as HoleRegistry.findInRange would.
+     * With few holes every ball is tested against all of them, many balls at a time.
+     * @param holes Holes of the level
+     * @param from First index, inclusive
+     * @param to Last index, exclusive
+     * @param result Receives the hole index for each ball, or -1, at the ball's index
+     */
+    public void findHoles(HoleRegistry holes, int from, int to, int[] result) {
+        if (holes.size() > SCAN_HOLE_LIMIT) {
+            for (int i = from; i < to; i++) {
+                result[i] = holes.findInRange(x[i], y[i]);
+            }
+            return;
+        }
+        kernel.findHoles(x, y, from, to, holes.getXArray(), holes.getYArray(), holes.size(),
+                HoleRegistry.HOLE_RANGE * HoleRegistry.HOLE_RANGE, result);
+    }
+
+    /**
+     * Pulls a ball towards a hole found by findHoles and checks for capture
+     * @param i Index of the ball
+     * @param holes Holes of the level
+     * @param hole Hole in range of the ball, or -1
+     * @return 1 for correct capture, -1 for wrong capture, 0 for no capture
+     */
+    public int checkHole(int i, HoleRegistry holes, int hole) {
+        if (hole < 0) {
+            radius[i] = App.CELLSIZE / 2;
+            return 0;
+        }
+
+        float dx = holes.getX(hole) - x[i];
+        float dy = holes.getY(hole) - y[i];
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+
+        // Shrink ball as it approaches hole
+        radius[i] = (int) (App.CELLSIZE / 2 * (distance / HoleRegistry.HOLE_RANGE));
+
+        // Apply hole attraction, keeping the current speed
+        float speed = (float) Math.sqrt(vx[i] * vx[i] + vy[i] * vy[i]);
+        float nvx = vx[i] + dx * attractionPerTick;
+        float nvy = vy[i] + dy * attractionPerTick;
+        float magnitude = (float) Math.sqrt(nvx * nvx + nvy * nvy);
+        if (magnitude > 0) {
+            nvx = nvx / magnitude * speed;
+            nvy = nvy / magnitude * speed;
+        }
+        vx[i] = nvx;
+        vy[i] = nvy;
+
+        if (distance <= CAPTURE_RANGE) {
+            return holes.canCapture(colour[i], hole) ? 1 : -1;
+        }
+        return 0;
+    }
+
+    /**
+     * Overwrites a ball's velocity, used when it reflects off a line
+     * @param i Index of the ball
+     */
+    public void setVelocity(int i, float velocityX, float velocityY) {
+        vx[i] = velocityX;
+        vy[i] = velocityY;
+    }
+
+    /**
+     * Sets the world edges balls bounce off, for levels larger than the window
+     * @param width Right edge in pixels
+     * @param height Bottom edge in pixels, measured from the top of the window
+     */
+    public void setBounds(float width, float height) {
+        boundsWidth = width;
+        boundsHeight = height;
+    }
+
+    /**
+     * Replaces the kernel ranges of balls are stepped with, e.g. to compare kernels
+     * @param kernel Kernel matching ScalarBallKernel bit for bit
+     */
+    void setKernel(BallKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    public int size() { return count; }
+    public boolean isEmpty() { return count == 0; }
+    public float getX(int i) { return x[i]; }
+    public float getY(int i) { return y[i]; }
+    /** @return X-coordinate at the start of the current tick */
+    public float getPreviousX(int i) { return previousX[i]; }
+    /** @return Y-coordinate at the start of the current tick */
+    public float getPreviousY(int i) { return previousY[i]; }
+    public float getVx(int i) { return vx[i]; }
+    public float getVy(int i) { return vy[i]; }
+    public float getRadius(int i) { return radius[i]; }
+    public int getColour(int i) { return colour[i]; }
+}
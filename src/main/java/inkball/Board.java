@@ -0,0 +1,72 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * Contents of every board cell as a TileCode, one byte per cell in row-major order.
+ * Loaded straight from a compiled level and read by the renderer.
+ */
+public class Board {
+    private final int rows;
+    private final int cols;
+    private final byte[] cells;
+
+    /**
+     * Creates a board of plain tiles
+     * @param rows Number of board rows
+     * @param cols Number of board columns
+     */
+    public Board(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new byte[rows * cols];
+    }
+
+    /**
+     * Replaces every cell
+     * @param codes TileCode values in row-major order, rows * cols long
+     */
+    public void load(byte[] codes) {
+        if (codes.length != cells.length) {
+            throw new IllegalArgumentException("Expected " + cells.length + " cells but got " + codes.length);
+        }
+        System.arraycopy(codes, 0, cells, 0, cells.length);
+    }
+
+    /** @return An independent board with the same cells */
+    public Board copy() {
+        Board copy = new Board(rows, cols);
+        copy.load(cells);
+        return copy;
+    }
+
+    /** Resets every cell to a plain tile */
+    public void clear() {
+        Arrays.fill(cells, TileCode.TILE);
+    }
+
+    /**
+     * @param col Column index
+     * @param row Row index
+     * @return TileCode of the cell, TILE for cells outside the board
+     */
+    public byte get(int col, int row) {
+        return inBounds(col, row) ? cells[row * cols + col] : TileCode.TILE;
+    }
+
+    public boolean isEntrypoint(int col, int row) { return get(col, row) == TileCode.ENTRYPOINT; }
+    public boolean isWall(int col, int row) { return TileCode.isWall(get(col, row)); }
+    public boolean isHole(int col, int row) { return TileCode.isHole(get(col, row)); }
+
+    /** @return Colour number of the wall or hole in the cell */
+    public int getColour(int col, int row) {
+        return TileCode.colour(get(col, row));
+    }
+
+    private boolean inBounds(int col, int row) {
+        return col >= 0 && col < cols && row >= 0 && row < rows;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+}
@@ -0,0 +1,71 @@
+package inkball;
+
+/**
+ * Scrolling view onto a world that may be larger than the window.
+ * World coordinates match the simulation: board row 0 starts at y = TOPBAR.
+ * The viewport is the window below the top bar; screen = world - scroll.
+ */
+public class Camera {
+    private final float viewWidth;
+    private final float viewHeight;
+    private float worldWidth;
+    private float worldHeight;
+    private float scrollX;
+    private float scrollY;
+
+    /**
+     * Creates a camera at the top-left of the world
+     * @param viewWidth Window width in pixels
+     * @param viewHeight Window height in pixels, including the top bar
+     */
+    public Camera(float viewWidth, float viewHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        setWorld(viewWidth, viewHeight);
+    }
+
+    /**
+     * Sets the world size, keeping the scroll position inside it
+     * @param width World width in pixels
+     * @param height World height in pixels, including the top bar
+     */
+    public void setWorld(float width, float height) {
+        worldWidth = width;
+        worldHeight = height;
+        scrollTo(scrollX, scrollY);
+    }
+
+    /**
+     * Moves the view by the given amount, stopping at the world edges
+     */
+    public void pan(float dx, float dy) {
+        scrollTo(scrollX + dx, scrollY + dy);
+    }
+
+    private void scrollTo(float x, float y) {
+        scrollX = Math.max(0, Math.min(worldWidth - viewWidth, x));
+        scrollY = Math.max(0, Math.min(worldHeight - viewHeight, y));
+    }
+
+    /**
+     * @return true if any part of the world rectangle falls inside the viewport
+     */
+    public boolean isVisible(float minX, float minY, float maxX, float maxY) {
+        return maxX >= scrollX && minX <= scrollX + viewWidth
+                && maxY >= scrollY + App.TOPBAR && minY <= scrollY + viewHeight;
+    }
+
+    /** @return First board column at least partly visible */
+    public int firstCol() { return Math.max(0, (int) Math.floor(scrollX / App.CELLSIZE)); }
+    /** @return Last board column at least partly visible */
+    public int lastCol() { return (int) Math.floor((scrollX + viewWidth - 1) / App.CELLSIZE); }
+    /** @return First board row at least partly visible */
+    public int firstRow() { return Math.max(0, (int) Math.floor(scrollY / App.CELLSIZE)); }
+    /** @return Last board row at least partly visible */
+    public int lastRow() { return (int) Math.floor((scrollY + viewHeight - App.TOPBAR - 1) / App.CELLSIZE); }
+
+    public float toWorldX(float screenX) { return screenX + scrollX; }
+    public float toWorldY(float screenY) { return screenY + scrollY; }
+    public float getScrollX() { return scrollX; }
+    public float getScrollY() { return scrollY; }
+}
@@ -0,0 +1,74 @@
+package inkball;
+
+/**
+ * Ball, wall and hole colours as small ints, with the tables that turn colour
+ * interactions into array reads. Grey is colour 0 and matches every hole.
+ */
+public final class Colour {
+    public static final int GREY = 0;
+    public static final int ORANGE = 1;
+    public static final int BLUE = 2;
+    public static final int GREEN = 3;
+    public static final int YELLOW = 4;
+    public static final int COUNT = 5;
+
+    private static final String[] NAMES = {"grey", "orange", "blue", "green", "yellow"};
+
+    /** Ball colour after hitting a wall, indexed by wall * COUNT + ball; grey walls keep the ball's colour */
+    private static final byte[] RECOLOUR = new byte[COUNT * COUNT];
+    /** Whether a hole accepts a ball, indexed by ball * COUNT + hole; grey on either side always matches */
+    private static final boolean[] CAPTURE_VALID = new boolean[COUNT * COUNT];
+
+    static {
+        for (int wall = 0; wall < COUNT; wall++) {
+            for (int ball = 0; ball < COUNT; ball++) {
+                RECOLOUR[wall * COUNT + ball] = (byte) (wall == GREY ? ball : wall);
+            }
+        }
+        for (int ball = 0; ball < COUNT; ball++) {
+            for (int hole = 0; hole < COUNT; hole++) {
+                CAPTURE_VALID[ball * COUNT + hole] = hole == ball || ball == GREY || hole == GREY;
+            }
+        }
+    }
+
+    private Colour() {
+    }
+
+    /**
+     * @param wall Colour of the wall that was hit
+     * @param ball Colour of the ball that hit it
+     * @return Colour the ball takes on
+     */
+    public static byte afterWallHit(int wall, int ball) {
+        return RECOLOUR[wall * COUNT + ball];
+    }
+
+    /**
+     * @param ball Colour of the ball
+     * @param hole Colour of the hole it fell into
+     * @return true if the capture scores, false if it is a wrong-hole penalty
+     */
+    public static boolean canCapture(int ball, int hole) {
+        return CAPTURE_VALID[ball * COUNT + hole];
+    }
+
+    /** @return The colour if it is valid, otherwise grey */
+    public static int orGrey(int colour) {
+        return colour >= 0 && colour < COUNT ? colour : GREY;
+    }
+
+    /** @return Colour number for a config colour name; unknown names are grey */
+    public static int byName(String colourName) {
+        String name = colourName.toLowerCase();
+        for (int colour = 0; colour < COUNT; colour++) {
+            if (NAMES[colour].equals(name)) return colour;
+        }
+        return GREY;
+    }
+
+    /** @return Config name of a colour, e.g. "blue" */
+    public static String name(int colour) {
+        return NAMES[colour];
+    }
+}
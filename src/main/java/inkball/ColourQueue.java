@@ -0,0 +1,80 @@
+package inkball;
+
+/**
+ * Fixed-capacity ring buffer of ball colour numbers waiting to spawn.
+ * Sized once to hold every ball of the largest level, since a ball can only
+ * be queued again after it leaves play; adding and polling never allocate.
+ */
+public class ColourQueue {
+    private final byte[] colours;
+    private int head;
+    private int size;
+
+    /**
+     * Creates an empty queue
+     * @param capacity Most colours it can ever hold
+     */
+    public ColourQueue(int capacity) {
+        colours = new byte[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Adds a colour at the back of the queue
+     * @param colour Colour number, 0 (grey) to 4
+     * @throws IllegalStateException if the queue is full
+     */
+    public void add(int colour) {
+        if (size == colours.length) {
+            throw new IllegalStateException("Colour queue is full at " + size);
+        }
+        colours[(head + size) % colours.length] = (byte) colour;
+        size++;
+    }
+
+    /**
+     * Removes the colour at the front of the queue
+     * @return The colour number
+     * @throws IllegalStateException if the queue is empty
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Colour queue is empty");
+        }
+        int colour = colours[head];
+        head = (head + 1) % colours.length;
+        size--;
+        return colour;
+    }
+
+    /**
+     * @param i Position from the front, 0 being the next to spawn
+     * @return Colour number at that position
+     */
+    public int peek(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " of " + size);
+        }
+        return colours[(head + i) % colours.length];
+    }
+
+    /** Removes every colour */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * @return Hash of the queued colours in order
+     */
+    public long checksum() {
+        long hash = size;
+        for (int i = 0; i < size; i++) {
+            hash = hash * 31 + peek(i);
+        }
+        return hash;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int getCapacity() { return colours.length; }
+}
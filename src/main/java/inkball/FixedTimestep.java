@@ -0,0 +1,65 @@
+package inkball;
+
+/**
+ * Fixed-timestep clock. Real time is added to an accumulator and spent in whole steps,
+ * so the simulation advances at the same rate of game time however irregularly it is woken.
+ * At most maxSteps run per advance; time beyond that is dropped, so the simulation slows
+ * down under sustained overload instead of falling further and further behind.
+ */
+public class FixedTimestep {
+    private final long stepNanos;
+    private final int maxSteps;
+    private long accumulated;
+    private long last;
+    private boolean started;
+    private long droppedSteps;
+
+    /**
+     * @param stepsPerSecond Steps per second of real time
+     * @param maxSteps Most steps a single advance may ask for
+     */
+    public FixedTimestep(int stepsPerSecond, int maxSteps) {
+        this.stepNanos = 1_000_000_000L / stepsPerSecond;
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Adds the time since the previous call and takes as many whole steps as it covers
+     * @param now Current System.nanoTime(); the first call only starts the clock
+     * @return Steps to run now, 0 to maxSteps
+     */
+    public int advance(long now) {
+        if (!started) {
+            started = true;
+            last = now;
+            return 0;
+        }
+        accumulated += now - last;
+        last = now;
+
+        long due = accumulated / stepNanos;
+        int steps = (int) Math.min(due, maxSteps);
+        if (due > steps) {
+            droppedSteps += due - steps;
+            accumulated %= stepNanos; // keep the fraction so the next step stays on schedule
+        } else {
+            accumulated -= steps * stepNanos;
+        }
+        return steps;
+    }
+
+    /** @return Time the last whole step became due, on the System.nanoTime() clock */
+    public long getStepTime() {
+        return last - accumulated;
+    }
+
+    /** @return Nanoseconds until the next step is due */
+    public long getNanosUntilNextStep() {
+        return stepNanos - accumulated;
+    }
+
+    public long getStepNanos() { return stepNanos; }
+    public int getMaxSteps() { return maxSteps; }
+    /** @return Steps skipped so far because more than maxSteps were due at once */
+    public long getDroppedSteps() { return droppedSteps; }
+}
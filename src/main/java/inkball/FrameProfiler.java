@@ -0,0 +1,145 @@
+package inkball;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-phase frame timing and event counters.
+ * Phase time is accumulated over a frame and recorded into that phase's histogram when
+ * the frame ends, so each histogram shows how much of a frame the phase costs.
+ * Work split across threads is summed, giving CPU time rather than wall time.
+ * While disabled every call returns immediately.
+ */
+public class FrameProfiler {
+    /** Parts of a frame that are timed */
+    public enum Phase {
+        TIMERS, SPAWNER, BALL_STEP, WALL_COLLISION, LINE_COLLISION, HOLE_COLLISION,
+        BOARD_RENDER, ENTITY_RENDER, HUD_RENDER, FRAME
+    }
+
+    /** Events that are counted */
+    public enum Counter {
+        COLLISIONS_TESTED, COLLISIONS_HIT, CAPTURES, SPAWNS
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final Counter[] COUNTERS = Counter.values();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+    private final AtomicLongArray frameNanos = new AtomicLongArray(PHASES.length);
+    private final AtomicLongArray counts = new AtomicLongArray(COUNTERS.length);
+    private boolean enabled;
+    private long frameStart;
+    private long frames;
+
+    public FrameProfiler() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * @return Start timestamp to pass to stop, or 0 while disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Adds the time since start to a phase of the current frame. May be called from any thread.
+     * @param phase Phase the time belongs to
+     * @param start Value returned by start()
+     */
+    public void stop(Phase phase, long start) {
+        if (enabled) {
+            frameNanos.addAndGet(phase.ordinal(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds to a counter. May be called from any thread.
+     * @param counter Counter to increase
+     * @param amount Amount to add
+     */
+    public void count(Counter counter, long amount) {
+        if (enabled && amount != 0) {
+            counts.addAndGet(counter.ordinal(), amount);
+        }
+    }
+
+    /** Marks the start of a frame */
+    public void beginFrame() {
+        frameStart = start();
+    }
+
+    /** Records the time of every phase in the frame that just ended */
+    public void endFrame() {
+        if (!enabled) return;
+
+        stop(Phase.FRAME, frameStart);
+        for (int i = 0; i < PHASES.length; i++) {
+            histograms[i].record(frameNanos.getAndSet(i, 0));
+        }
+        frames++;
+    }
+
+    /** Clears every histogram and counter */
+    public void reset() {
+        for (int i = 0; i < PHASES.length; i++) {
+            histograms[i].clear();
+            frameNanos.set(i, 0);
+        }
+        for (int i = 0; i < COUNTERS.length; i++) {
+            counts.set(i, 0);
+        }
+        frames = 0;
+    }
+
+    /**
+     * @return Table of per-phase latencies in milliseconds followed by the counters
+     */
+    public String summary() {
+        StringWriter text = new StringWriter();
+        PrintWriter out = new PrintWriter(text);
+        out.printf("Frames: %d%n", frames);
+        out.printf("%-18s %9s %9s %9s %9s %9s%n", "phase (ms)", "mean", "p50", "p99", "p99.9", "max");
+        for (Phase phase : PHASES) {
+            LatencyHistogram h = histograms[phase.ordinal()];
+            out.printf("%-18s %9.3f %9.3f %9.3f %9.3f %9.3f%n", phase,
+                    h.getMean() / 1e6, h.percentile(0.5) / 1e6, h.percentile(0.99) / 1e6,
+                    h.percentile(0.999) / 1e6, h.getMax() / 1e6);
+        }
+        for (Counter counter : COUNTERS) {
+            out.printf("%-18s %d%n", counter, counts.get(counter.ordinal()));
+        }
+        out.flush();
+        return text.toString();
+    }
+
+    /**
+     * Writes the summaries of several profilers to one file, each under its title
+     * @param path Destination file, replaced if it exists
+     * @param titles Heading for each profiler
+     * @param profilers Profilers in the order they are written
+     * @throws IOException if writing fails
+     */
+    public static void writeSummary(Path path, String[] titles, FrameProfiler... profilers) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < profilers.length; i++) {
+            if (i > 0) text.append('\n');
+            text.append(titles[i]).append('\n').append(profilers[i].summary());
+        }
+        Files.write(path, text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public boolean isEnabled() { return enabled; }
+    public long getFrames() { return frames; }
+    public LatencyHistogram getHistogram(Phase phase) { return histograms[phase.ordinal()]; }
+    public long getCount(Counter counter) { return counts.get(counter.ordinal()); }
+}
@@ -0,0 +1,215 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * Everything the renderer needs from one simulation tick, copied out of the engine.
+ * The simulation thread fills a snapshot and hands it over through a SnapshotBuffer;
+ * from then on it is only read, so rendering never touches live engine state.
+ * Buffers are reused from snapshot to snapshot and only grow.
+ */
+public class FrameSnapshot {
+    private int tick;
+    /** The engine's tick rate; one tick is the span positions are interpolated over */
+    private int ticksPerSecond = GameEngine.DEFAULT_TICKS_PER_SECOND;
+    private long tickTime;
+    private int levelVersion = -1;
+    private Board board;
+    private int worldWidth;
+    private int worldHeight;
+
+    private int ballCount;
+    private float[] ballX = new float[64];
+    private float[] ballY = new float[64];
+    private float[] previousX = new float[64];
+    private float[] previousY = new float[64];
+    private float[] ballRadius = new float[64];
+    private byte[] ballColour = new byte[64];
+
+    /** Points of every line, packed x, y; line i ends before point lineEnd[i] */
+    private int lineCount;
+    private int[] lineEnd = new int[16];
+    private float[] lineBounds = new float[16 * 4];
+    private float[] linePoints = new float[256];
+    private boolean drawing;
+
+    private int score;
+    private int timeRemaining;
+    private int spawnTimer;
+    private int spawnCount;
+    private int lastBallColour;
+    private int queueLength;
+    private byte[] queue = new byte[16];
+    private boolean paused;
+    private boolean timeUp;
+    private boolean gameEnded;
+    private boolean gameFinished;
+    private boolean incrementingScore;
+    private int bonusSteps;
+
+    /**
+     * Copies the engine's current state. Must run on the thread stepping the engine.
+     * @param engine Engine to copy
+     * @param tickTime When the engine's last tick was due, on the System.nanoTime() clock
+     */
+    public void capture(GameEngine engine, long tickTime) {
+        tick = engine.getTick();
+        ticksPerSecond = engine.getTicksPerSecond();
+        this.tickTime = tickTime;
+        if (board == null || levelVersion != engine.getLevelVersion()) {
+            // Boards never change within a level, so the copy is only refreshed on level loads
+            board = engine.getBoard().copy();
+            levelVersion = engine.getLevelVersion();
+        }
+        worldWidth = engine.getWorldWidth();
+        worldHeight = engine.getWorldHeight();
+
+        captureBalls(engine.getBalls());
+        captureLines(engine);
+
+        score = engine.getScore();
+        timeRemaining = engine.getTimeRemaining();
+        spawnTimer = engine.getSpawnTimer();
+        spawnCount = engine.getSpawnCount();
+        lastBallColour = engine.getLastBallColour();
+        ColourQueue colours = engine.getBallColoursToSpawn();
+        queueLength = colours.size();
+        if (queue.length < queueLength) {
+            queue = new byte[Math.max(queueLength, queue.length * 2)];
+        }
+        for (int i = 0; i < queueLength; i++) {
+            queue[i] = (byte) colours.peek(i);
+        }
+        paused = engine.isPaused();
+        timeUp = engine.isTimeUp();
+        gameEnded = engine.isGameEnded();
+        gameFinished = engine.isGameFinished();
+        incrementingScore = engine.isIncrementingScore();
+        bonusSteps = engine.getBonusSteps();
+    }
+
+    private void captureBalls(BallStore balls) {
+        ballCount = balls.size();
+        if (ballX.length < ballCount) {
+            int capacity = Math.max(ballCount, ballX.length * 2);
+            ballX = new float[capacity];
+            ballY = new float[capacity];
+            previousX = new float[capacity];
+            previousY = new float[capacity];
+            ballRadius = new float[capacity];
+            ballColour = new byte[capacity];
+        }
+        for (int i = 0; i < ballCount; i++) {
+            ballX[i] = balls.getX(i);
+            ballY[i] = balls.getY(i);
+            previousX[i] = balls.getPreviousX(i);
+            previousY[i] = balls.getPreviousY(i);
+            ballRadius[i] = balls.getRadius(i);
+            ballColour[i] = (byte) balls.getColour(i);
+        }
+    }
+
+    private void captureLines(GameEngine engine) {
+        lineCount = 0;
+        int points = 0;
+        for (Line line : engine.getLines()) {
+            points = addLine(line, points);
+        }
+        Line drawingLine = engine.getDrawingLine();
+        drawing = drawingLine != null;
+        if (drawing) {
+            addLine(drawingLine, points);
+        }
+    }
+
+    private int addLine(Line line, int points) {
+        if (lineCount == lineEnd.length) {
+            lineEnd = Arrays.copyOf(lineEnd, lineCount * 2);
+            lineBounds = Arrays.copyOf(lineBounds, lineCount * 2 * 4);
+        }
+        int needed = (points + line.getPointCount()) * 2;
+        if (linePoints.length < needed) {
+            linePoints = Arrays.copyOf(linePoints, Math.max(needed, linePoints.length * 2));
+        }
+
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < line.getPointCount(); i++) {
+            float x = line.getX(i);
+            float y = line.getY(i);
+            linePoints[points * 2] = x;
+            linePoints[points * 2 + 1] = y;
+            points++;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+        lineBounds[lineCount * 4] = minX;
+        lineBounds[lineCount * 4 + 1] = minY;
+        lineBounds[lineCount * 4 + 2] = maxX;
+        lineBounds[lineCount * 4 + 3] = maxY;
+        lineEnd[lineCount++] = points;
+        return points;
+    }
+
+    public int getTick() { return tick; }
+    public int getTicksPerSecond() { return ticksPerSecond; }
+    public int getLevelVersion() { return levelVersion; }
+    /** @return The level's board; shared between snapshots of the same level and never modified */
+    public Board getBoard() { return board; }
+    public int getWorldWidth() { return worldWidth; }
+    public int getWorldHeight() { return worldHeight; }
+
+    public int getBallCount() { return ballCount; }
+    public float getBallX(int i) { return ballX[i]; }
+    public float getBallY(int i) { return ballY[i]; }
+
+    /**
+     * How far display time has moved past this snapshot's tick, as a fraction of a tick.
+     * The renderer draws one tick behind the simulation, blending from the previous tick's
+     * positions to this one's, so motion stays smooth whatever the two rates are.
+     * @param now Current System.nanoTime()
+     * @return 0 at the tick, rising to 1 a tick later and held there
+     */
+    public float getAlpha(long now) {
+        return Math.max(0, Math.min(1, (now - tickTime) * ticksPerSecond / 1e9f));
+    }
+
+    /** @return Ball x-coordinate blended between the previous tick and this one */
+    public float getBallX(int i, float alpha) { return previousX[i] + (ballX[i] - previousX[i]) * alpha; }
+    /** @return Ball y-coordinate blended between the previous tick and this one */
+    public float getBallY(int i, float alpha) { return previousY[i] + (ballY[i] - previousY[i]) * alpha; }
+    public float getBallRadius(int i) { return ballRadius[i]; }
+    public int getBallColour(int i) { return ballColour[i]; }
+
+    /** @return Number of lines, including the stroke being drawn as the last one */
+    public int getLineCount() { return lineCount; }
+    /** @return Index of the line's first point */
+    public int getLineStart(int line) { return line == 0 ? 0 : lineEnd[line - 1]; }
+    /** @return Index one past the line's last point */
+    public int getLineEnd(int line) { return lineEnd[line]; }
+    public float getPointX(int point) { return linePoints[point * 2]; }
+    public float getPointY(int point) { return linePoints[point * 2 + 1]; }
+    public float getLineMinX(int line) { return lineBounds[line * 4]; }
+    public float getLineMinY(int line) { return lineBounds[line * 4 + 1]; }
+    public float getLineMaxX(int line) { return lineBounds[line * 4 + 2]; }
+    public float getLineMaxY(int line) { return lineBounds[line * 4 + 3]; }
+    /** @return true if the last line is a stroke still being drawn */
+    public boolean isDrawing() { return drawing; }
+
+    public int getScore() { return score; }
+    public int getTimeRemaining() { return timeRemaining; }
+    public int getSpawnTimer() { return spawnTimer; }
+    public int getSpawnCount() { return spawnCount; }
+    public int getLastBallColour() { return lastBallColour; }
+    public int getQueueLength() { return queueLength; }
+    public int getQueuedColour(int i) { return queue[i]; }
+    public boolean isPaused() { return paused; }
+    public boolean isTimeUp() { return timeUp; }
+    public boolean isGameEnded() { return gameEnded; }
+    public boolean isGameFinished() { return gameFinished; }
+    public boolean isIncrementingScore() { return incrementingScore; }
+    /** @return Seconds of remaining time converted to score so far in the current level's bonus */
+    public int getBonusSteps() { return bonusSteps; }
+}
@@ -0,0 +1,920 @@
+package inkball;
+
+import processing.core.PImage;
+import processing.data.JSONObject;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the game simulation independently of any Processing window.
+ * Owns the level state and advances it one tick at a time: timers, ball spawning,
+ * ball movement and collisions, hole captures, scoring and level progression.
+ * In the game a SimulationThread ticks it on a fixed timestep, independent of the frame rate;
+ * headless callers can tick as fast as they like.
+ */
+public class GameEngine {
+
+    /** Simulation ticks per second of game time unless the engine is given another rate; independent of App.FPS */
+    public static final int DEFAULT_TICKS_PER_SECOND = 30;
+    /** Speed balls spawn at, in pixels per second */
+    private static final float BALL_SPEED = 60f;
+    /** Seconds of remaining time turned into score per second at the end of a level */
+    private static final int BONUS_STEPS_PER_SECOND = 15;
+    /** Balls per task when stepping in parallel */
+    private static final int PARALLEL_CHUNK = 256;
+
+    private final LevelBundle levels;
+    private final SpriteAtlas sprites;
+    private final int ticksPerSecond;
+
+    private Board board; // sized to the current level, which may be larger than the window
+    private final ArrayList<Wall> walls = new ArrayList<>();
+    private WallGrid wallGrid;
+    private WallField wallField; // distance to the walls, rebuilt when a level loads
+    private HoleRegistry holes; // hole centres and colours with a cell lookup
+    private final BallStore balls; //stores balls
+    private final ArrayList<Line> lines = new ArrayList<>(); // stores lines
+    private final LinePool linePool = new LinePool(); // removed lines, reused for new strokes
+    private SegmentGrid segmentGrid; // line segments by cell
+    private final ArrayList<int[]> spawnerLocations = new ArrayList<>();
+    private final ColourQueue ballColoursToSpawn; //ball colours to spawn
+    private int spawnInterval;
+    private int spawnTimer;
+    private int currentBallIndex = 0;
+    private int score = 0;
+    private final int[] captureScore = new int[Colour.COUNT]; // score for a ball in its own hole, by colour
+    private final int[] wrongHoleScore = new int[Colour.COUNT]; // score lost for a ball in another hole, by colour
+    private int countdownTime;
+    private int timeRemaining;
+    private boolean levelEnded = false;
+    private boolean gameEnded = false;
+    private boolean timeUp = false;
+    private boolean gameFinished = false;
+    private int currentLevelIndex = 0;
+    private boolean paused = false;
+    private int incrementedTime = 0;
+    /** Paces the bonus count-down at BONUS_STEPS_PER_SECOND whatever the tick rate */
+    private final RateDivider bonusRate;
+    private boolean incrementingScore = false;
+    private boolean bonusTickAdvanced = false;
+    private int lastBallColour = -1; // colour of the last spawned ball, -1 if none
+    private int tick = 0;
+    private int levelVersion = 0;
+    private boolean parallel = false;
+    private boolean swept = false;
+    private boolean moveBalls;
+    private SegmentGrid.Segment[] lineHits = new SegmentGrid.Segment[64]; // per-ball line hit found this tick
+    private int[] holeResults = new int[64]; // per-ball hole result found this tick
+    private final BallRangeTask collisionPhase = this::stepCollisions;
+    private final BallRangeTask holePhase = this::stepHoles;
+    private final FrameProfiler profiler = new FrameProfiler();
+    private long seed = new Random().nextLong(); // seeds every random choice the simulation makes
+    private InputJournal journal; // records inputs when set
+    private final InputQueue input = new InputQueue(1024); // player input, drained at the start of each tick
+    private final InputQueue.Handler inputHandler = this::handleInput;
+    private Line drawingLine; // stroke in progress, added to the level on release
+
+    /**
+     * Creates an engine for precompiled levels, ticking at DEFAULT_TICKS_PER_SECOND
+     * @param levels Every level of the game, compiled once
+     * @param sprites Sprites handed to walls; null when running headless
+     */
+    public GameEngine(LevelBundle levels, SpriteAtlas sprites) {
+        this(levels, sprites, DEFAULT_TICKS_PER_SECOND);
+    }
+
+    /**
+     * Creates an engine for precompiled levels. Speeds, timers and hole pull are all
+     * given per second, so a level plays out the same at any tick rate, only finer grained.
+     * @param levels Every level of the game, compiled once
+     * @param sprites Sprites handed to walls; null when running headless
+     * @param ticksPerSecond Simulation ticks per second of game time
+     */
+    public GameEngine(LevelBundle levels, SpriteAtlas sprites, int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive: " + ticksPerSecond);
+        }
+        this.levels = levels;
+        this.sprites = sprites;
+        this.ticksPerSecond = ticksPerSecond;
+        this.balls = new BallStore(64, ticksPerSecond);
+        this.bonusRate = new RateDivider(BONUS_STEPS_PER_SECOND, ticksPerSecond);
+        // Every ball of a level, queued or placed, can end up back in the queue
+        this.ballColoursToSpawn = new ColourQueue(levels.getMostBalls());
+        resizeWorld((App.HEIGHT - App.TOPBAR) / App.CELLSIZE, App.WIDTH / App.CELLSIZE);
+    }
+
+    /**
+     * Sizes the board and every spatial index to a level
+     * @param rows Number of board rows
+     * @param cols Number of board columns
+     */
+    private void resizeWorld(int rows, int cols) {
+        board = new Board(rows, cols);
+        wallGrid = new WallGrid(rows, cols);
+        wallField = new WallField(rows, cols);
+        holes = new HoleRegistry(rows, cols);
+        segmentGrid = new SegmentGrid(getWorldWidth(), getWorldHeight(), App.CELLSIZE);
+        balls.setBounds(getWorldWidth(), getWorldHeight());
+    }
+
+    /**
+     * Creates an engine for the given configuration, compiling every level up front
+     * @param config Parsed contents of config.json
+     * @param layoutLoader Loads the lines of a level layout file by name
+     * @param sprites Sprites handed to walls; null when running headless
+     */
+    public GameEngine(JSONObject config, Function<String, String[]> layoutLoader, SpriteAtlas sprites) {
+        this(LevelCompiler.compile(config, layoutLoader), sprites);
+    }
+
+    /**
+     * Creates a headless engine reading config and layouts from the file system
+     * @param configPath Path to config.json; layout paths are resolved against its directory
+     * @return Engine with no sprites attached
+     * @throws IOException if the config file cannot be read
+     */
+    public static GameEngine fromFiles(String configPath) throws IOException {
+        return new GameEngine(LevelCompiler.compile(configPath), null);
+    }
+
+    /**
+     * Creates a headless engine from either a config file or a compiled bundle
+     * @param path config.json, or a .bin bundle written by LevelCompiler
+     * @return Engine with no sprites attached
+     * @throws IOException if the file cannot be read
+     */
+    public static GameEngine fromPath(String path) throws IOException {
+        return path.endsWith(".bin") ? fromBundle(path) : fromFiles(path);
+    }
+
+    /**
+     * Creates a headless engine from a bundle written by LevelCompiler
+     * @param bundlePath Path to the compiled level bundle
+     * @return Engine with no sprites attached
+     * @throws IOException if the bundle cannot be read
+     */
+    public static GameEngine fromBundle(String bundlePath) throws IOException {
+        return new GameEngine(LevelBundle.read(Paths.get(bundlePath)), null);
+    }
+
+    /** Loads the first level */
+    public void start() {
+        loadLevelData(currentLevelIndex);
+        spawnTimer = spawnInterval * ticksPerSecond;
+        countdownTime = spawnInterval;
+    }
+
+    /**
+     * Advances the simulation by one tick
+     */
+    public void tick() {
+        input.drain(inputHandler);
+        tick++;
+        balls.savePositions();
+        updateTimers();
+        handleGameProgress();
+        updateBalls();
+    }
+
+    /**
+     * Runs ticks back to back, whether or not the game has ended, until the tick count is reached
+     * @param targetTick Value getTick() should have on return
+     */
+    public void advanceTo(int targetTick) {
+        while (tick < targetTick) {
+            profiler.beginFrame();
+            tick();
+            profiler.endFrame();
+        }
+    }
+
+    /**
+     * Runs ticks back to back until the game ends or the limit is reached
+     * @param maxTicks Upper bound on ticks to run
+     * @return Number of ticks actually run
+     */
+    public int run(int maxTicks) {
+        int ran = 0;
+        while (ran < maxTicks && !gameEnded) {
+            profiler.beginFrame();
+            tick();
+            profiler.endFrame();
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * Loads level data for the specified level index.
+     * Sets up game state, timer, and level configuration from the compiled level.
+     * @param levelIndex Index of level to load
+     */
+    private void loadLevelData(int levelIndex) {
+
+        if (levelIndex >= levels.size()) {
+            gameEnded = true;
+            return;
+        }
+
+        LevelBundle.Level level = levels.getLevel(levelIndex);
+        loadLevel(level);
+        loadConfig(level);
+
+        timeRemaining = level.time;
+        levelEnded = false;
+        timeUp = false;
+        spawnTimer = spawnInterval * ticksPerSecond;
+        countdownTime = spawnInterval;
+    }
+
+    private static class TilePosition {
+        final int row, col;
+        final float x, y;
+
+        TilePosition(int row, int col) {
+            this.row = row;
+            this.col = col;
+            this.x = col * App.CELLSIZE;
+            this.y = row * App.CELLSIZE + App.TOPBAR;
+        }
+    }
+    /**
+     * Initializes game objects from a compiled level.
+     * Creates walls, holes, spawners and initial balls in layout order.
+     * @param level Compiled level
+     */
+    private void loadLevel(LevelBundle.Level level) {
+        if (level.rows != board.getRows() || level.cols != board.getCols()) {
+            resizeWorld(level.rows, level.cols);
+        }
+        spawnerLocations.clear();
+        holes.clear();
+        walls.clear();
+        wallGrid.clear();
+        balls.clear();
+        clearLines();
+        levelVersion++;
+
+        board.load(level.board);
+
+        for (int i = 0; i < level.wallRows.length; i++) {
+            createWall(new TilePosition(level.wallRows[i], level.wallCols[i]), level.wallColours[i]);
+        }
+        wallField.build(wallGrid);
+        for (int i = 0; i < level.spawnerRows.length; i++) {
+            createSpawner(new TilePosition(level.spawnerRows[i], level.spawnerCols[i]));
+        }
+        for (int i = 0; i < level.ballRows.length; i++) {
+            TilePosition pos = new TilePosition(level.ballRows[i], level.ballCols[i]);
+            ballSpawner.addBall(pos.x, pos.y, level.ballColours[i]);
+        }
+        for (int i = 0; i < level.holeRows.length; i++) {
+            TilePosition pos = new TilePosition(level.holeRows[i], level.holeCols[i]);
+            holes.add(pos.x + App.CELLSIZE, pos.y + App.CELLSIZE, level.holeColours[i]);
+        }
+    }
+
+    private void createWall(TilePosition pos, int colour) {
+        PImage sprite = sprites == null ? null : sprites.get(SpriteId.wall(colour));
+        Wall wall = new Wall(pos.col, pos.row, TileCode.name(TileCode.wall(colour)), sprite);
+        walls.add(wall);
+        wallGrid.add(wall);
+    }
+
+    private void createSpawner(TilePosition pos) {
+        spawnerLocations.add(new int[]{(int)pos.x, (int)pos.y});
+    }
+
+    private void loadConfig(LevelBundle.Level level) {
+        spawnInterval = level.spawnInterval;
+
+        ballColoursToSpawn.clear();
+        for (byte colour : level.spawnQueue) {
+            ballColoursToSpawn.add(colour);
+        }
+
+        spawnTimer = spawnInterval * ticksPerSecond;
+        currentBallIndex = 0;
+
+        // Fold the level's modifiers into per-colour deltas so a capture is one array read
+        for (int colour = 0; colour < Colour.COUNT; colour++) {
+            captureScore[colour] = levels.getScoreIncrease(colour) * (int) level.scoreIncreaseModifier;
+            wrongHoleScore[colour] = levels.getScoreDecrease(colour) * (int) level.scoreDecreaseModifier;
+        }
+    }
+
+    /**
+     * Applies one queued input event. Strokes are built here rather than by the
+     * input thread, so lines only ever change between ticks.
+     */
+    private void handleInput(byte type, float x, float y, char key) {
+        switch (type) {
+            case InputQueue.PRESS:
+                if (drawingLine != null) {
+                    linePool.release(drawingLine);
+                }
+                drawingLine = acquireLine();
+                drawingLine.addStrokePoint(x, y);
+                break;
+            case InputQueue.DRAG:
+                if (drawingLine != null) {
+                    drawingLine.addStrokePoint(x, y);
+                }
+                break;
+            case InputQueue.RELEASE:
+                if (drawingLine != null) {
+                    drawingLine.finishStroke();
+                    addLine(drawingLine);
+                    drawingLine = null;
+                }
+                break;
+            case InputQueue.ERASE:
+                removeLineNear(x, y);
+                break;
+            case InputQueue.KEY:
+                if (key == 'r') {
+                    reset();
+                } else if (key == ' ') {
+                    togglePause();
+                }
+                break;
+        }
+    }
+
+    /** Pauses or resumes the game */
+    public void togglePause() {
+        if (journal != null) journal.recordTogglePause(tick);
+        paused = !paused;
+    }
+
+    /** Restarts the game from the first level */
+    public void reset() {
+        if (journal != null) journal.recordReset(tick);
+
+        currentLevelIndex = 0;
+        score = 0;
+        incrementedTime = 0;
+        gameEnded = false;
+        levelEnded = false;
+        timeUp = false;
+        incrementingScore = false;
+
+        balls.clear();
+        clearLines();
+
+        loadLevelData(currentLevelIndex);
+    }
+
+    /**
+     * @return An empty line for a new stroke, recycled from lines removed earlier
+     */
+    public Line acquireLine() {
+        return linePool.acquire();
+    }
+
+    /**
+     * Adds a finished player-drawn line to the level. The engine owns the line from here
+     * and returns it to the pool once it is removed.
+     * @param line Completed line
+     */
+    public void addLine(Line line) {
+        if (journal != null) journal.recordAddLine(tick, line);
+        lines.add(line);
+        segmentGrid.add(line);
+    }
+
+    /**
+     * Removes the first line passing near the given point
+     * @param x Screen x-coordinate
+     * @param y Screen y-coordinate
+     * @return true if a line was removed
+     */
+    public boolean removeLineNear(float x, float y) {
+        if (journal != null) journal.recordRemoveLineNear(tick, x, y);
+
+        Line line = segmentGrid.findLineNear(x, y);
+        if (line == null) {
+            return false;
+        }
+        removeLine(line);
+        return true;
+    }
+
+    private void removeLine(Line line) {
+        lines.remove(line);
+        segmentGrid.remove(line);
+        linePool.release(line);
+    }
+
+    private void clearLines() {
+        segmentGrid.clear();
+        for (Line line : lines) {
+            linePool.release(line);
+        }
+        lines.clear();
+    }
+
+    private void updateTimers() {
+        if (paused || timeUp) {
+            return;
+        }
+
+        long start = profiler.start();
+        updateGameTimer();
+        profiler.stop(FrameProfiler.Phase.TIMERS, start);
+
+        start = profiler.start();
+        updateBallSpawner();
+        profiler.stop(FrameProfiler.Phase.SPAWNER, start);
+    }
+
+    private void updateGameTimer() {
+        if (levelEnded || timeRemaining <= 0) {
+            return;
+        }
+
+        if (tick % ticksPerSecond == 0) {
+            timeRemaining--;
+            checkTimeUp();
+        }
+    }
+
+    private void checkTimeUp() {
+        if (timeRemaining <= 0) {
+            timeUp = true;
+            levelEnded = true;
+        }
+    }
+
+    private void updateBallSpawner() {
+        if (ballColoursToSpawn.isEmpty() && spawnTimer <= 0) {
+            countdownTime = 0;
+            lastBallColour = -1;
+            return;
+        }
+
+        if (spawnTimer <= 0) {
+            spawnNewBall();
+        } else {
+            spawnTimer--;
+            countdownTime = spawnTimer / ticksPerSecond;
+        }
+    }
+
+    private void spawnNewBall() {
+        if (ballSpawner.spawn()) {
+            profiler.count(FrameProfiler.Counter.SPAWNS, 1);
+        }
+        spawnTimer = spawnInterval * ticksPerSecond;
+        countdownTime = spawnInterval;
+    }
+
+    private void handleGameProgress() {
+        bonusTickAdvanced = false;
+        if (paused || incrementingScore) {
+            if (incrementingScore) {
+                updateScore();
+            }
+            return;
+        }
+
+        checkLevelCompletion();
+    }
+
+    private void updateScore() {
+        if (incrementedTime >= timeRemaining) {
+            incrementingScore = false;
+            timeRemaining = 0;
+            return;
+        }
+
+        for (int due = bonusRate.tick(); due > 0 && incrementedTime < timeRemaining; due--) {
+            score++;
+            incrementedTime++;
+            bonusTickAdvanced = true;
+        }
+    }
+
+    /**
+     * Work over a range of ball indices [from, to)
+     */
+    private interface BallRangeTask {
+        void run(int from, int to);
+    }
+
+    /**
+     * Steps every ball in phases: movement and wall collisions, line collisions, then holes.
+     * Per-ball work only touches that ball's state and may run across cores; anything shared
+     * (line removal, score, respawn queue, ball removal) is merged afterwards in ball order,
+     * so serial and parallel stepping produce identical results.
+     */
+    private void updateBalls() {
+        int count = balls.size();
+        if (lineHits.length < count) {
+            lineHits = new SegmentGrid.Segment[Math.max(count, lineHits.length * 2)];
+            holeResults = new int[lineHits.length];
+        }
+
+        moveBalls = !paused && !timeUp;
+        forEachBallRange(count, collisionPhase);
+        if (!lines.isEmpty()) {
+            long start = profiler.start();
+            mergeLineCollisions(count);
+            profiler.stop(FrameProfiler.Phase.LINE_COLLISION, start);
+        }
+
+        forEachBallRange(count, holePhase);
+        long start = profiler.start();
+        mergeHoleCollisions();
+        profiler.stop(FrameProfiler.Phase.HOLE_COLLISION, start);
+    }
+
+    private void forEachBallRange(int count, BallRangeTask task) {
+        if (!parallel || count <= PARALLEL_CHUNK) {
+            task.run(0, count);
+            return;
+        }
+
+        int chunks = (count + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(chunk ->
+                task.run(chunk * PARALLEL_CHUNK, Math.min(count, (chunk + 1) * PARALLEL_CHUNK)));
+    }
+
+    private void stepCollisions(int from, int to) {
+        if (swept) {
+            long start = profiler.start();
+            SegmentGrid lineGrid = lines.isEmpty() ? null : segmentGrid;
+            float dt = moveBalls ? 1 : 0;
+            for (int i = from; i < to; i++) {
+                lineHits[i] = balls.sweep(i, wallGrid, lineGrid, dt);
+            }
+            profiler.stop(FrameProfiler.Phase.BALL_STEP, start);
+            profiler.count(FrameProfiler.Counter.COLLISIONS_TESTED, to - from);
+            return;
+        }
+
+        long start = profiler.start();
+        if (moveBalls) {
+            balls.integrate(from, to);
+        }
+        profiler.stop(FrameProfiler.Phase.BALL_STEP, start);
+
+        start = profiler.start();
+        int wallHits = balls.checkCollisions(wallField, from, to);
+        profiler.stop(FrameProfiler.Phase.WALL_COLLISION, start);
+        profiler.count(FrameProfiler.Counter.COLLISIONS_TESTED, to - from);
+        profiler.count(FrameProfiler.Counter.COLLISIONS_HIT, wallHits);
+
+        if (!lines.isEmpty()) {
+            start = profiler.start();
+            for (int i = from; i < to; i++) {
+                lineHits[i] = segmentGrid.findCollision(balls, i);
+            }
+            profiler.stop(FrameProfiler.Phase.LINE_COLLISION, start);
+            profiler.count(FrameProfiler.Counter.COLLISIONS_TESTED, to - from);
+        }
+    }
+
+    private void stepHoles(int from, int to) {
+        long start = profiler.start();
+        balls.findHoles(holes, from, to, holeResults);
+        for (int i = from; i < to; i++) {
+            holeResults[i] = balls.checkHole(i, holes, holeResults[i]);
+        }
+        profiler.stop(FrameProfiler.Phase.HOLE_COLLISION, start);
+        profiler.count(FrameProfiler.Counter.COLLISIONS_TESTED, to - from);
+    }
+
+    /**
+     * Applies line hits in ball order. A hit found against the start-of-tick lines is still
+     * the right one unless an earlier ball already removed that line, in which case the ball
+     * is re-tested against the lines that remain.
+     * Swept balls have already bounced, so their lines are only removed.
+     */
+    private void mergeLineCollisions(int count) {
+        for (int i = 0; i < count; i++) {
+            SegmentGrid.Segment hit = lineHits[i];
+            lineHits[i] = null;
+            if (swept) {
+                if (hit != null && segmentGrid.contains(hit.line)) {
+                    removeLine(hit.line);
+                    profiler.count(FrameProfiler.Counter.COLLISIONS_HIT, 1);
+                }
+                continue;
+            }
+            if (hit != null && !segmentGrid.contains(hit.line)) {
+                hit = segmentGrid.findCollision(balls, i);
+            }
+            Line line = segmentGrid.applyCollision(hit, balls, i);
+            if (line != null) {
+                removeLine(line);
+                profiler.count(FrameProfiler.Counter.COLLISIONS_HIT, 1);
+            }
+        }
+    }
+
+    /**
+     * Scores captures in ball order. Captured balls are swap-removed,
+     * so the ball moved into slot i is handled next.
+     */
+    private void mergeHoleCollisions() {
+        int i = 0;
+        while (i < balls.size()) {
+            if (handleHoleCollisions(balls.getColour(i), holeResults[i])) {
+                profiler.count(FrameProfiler.Counter.CAPTURES, 1);
+                int last = balls.size() - 1;
+                balls.remove(i);
+                holeResults[i] = holeResults[last];
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Enables stepping balls across cores. Results are identical to serial stepping.
+     * @param parallel true to split ball work across the common fork-join pool
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Switches ball movement to swept collision, which finds the time of impact with walls,
+     * screen edges and lines along each ball's path, so fast balls cannot tunnel through them.
+     * Balls that hit the same line in one tick all bounce off it before it is removed.
+     * @param swept true for swept collision, false for the per-tick overlap test
+     */
+    public void setSweptCollisions(boolean swept) {
+        this.swept = swept;
+    }
+
+    /**
+     * Seeds the simulation's random choices: ball directions and spawn points.
+     * Call before start(); the same seed, levels and inputs always give the same game.
+     * @param seed Random seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        ballSpawner.random.setSeed(seed);
+    }
+
+    /**
+     * Records every input from now on, for replay with InputJournal.replay
+     * @param journal Journal to append to, or null to stop recording
+     */
+    public void setJournal(InputJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Hash of the whole simulation state: tick, level, score, timers, queue, lines and every ball.
+     * Two runs with equal checksums at the same tick are, for practical purposes, identical.
+     * @return State checksum
+     */
+    public long checksum() {
+        long hash = 17;
+        hash = hash * 31 + tick;
+        hash = hash * 31 + currentLevelIndex;
+        hash = hash * 31 + score;
+        hash = hash * 31 + timeRemaining;
+        hash = hash * 31 + spawnTimer;
+        hash = hash * 31 + (paused ? 1 : 0) + (gameEnded ? 2 : 0) + (timeUp ? 4 : 0);
+        hash = hash * 31 + ballColoursToSpawn.checksum();
+        hash = hash * 31 + lines.size();
+        for (int i = 0; i < balls.size(); i++) {
+            hash = hash * 31 + Float.floatToIntBits(balls.getX(i));
+            hash = hash * 31 + Float.floatToIntBits(balls.getY(i));
+            hash = hash * 31 + Float.floatToIntBits(balls.getVx(i));
+            hash = hash * 31 + Float.floatToIntBits(balls.getVy(i));
+            hash = hash * 31 + Float.floatToIntBits(balls.getRadius(i));
+            hash = hash * 31 + balls.getColour(i);
+        }
+        return hash;
+    }
+    /**
+     * Defines possible outcomes when a ball collides with a hole.
+     * CORRECT_HOLE (1): Ball matches hole color
+     * WRONG_HOLE (-1): Ball doesn't match hole color
+     * NO_COLLISION (0): No hole collision occurred
+     */
+    private enum CollisionResult {
+        CORRECT_HOLE(1),
+        WRONG_HOLE(-1),
+        NO_COLLISION(0);
+
+        private final int value;
+        CollisionResult(int value) { this.value = value; }
+
+        static CollisionResult fromValue(int value) {
+            for (CollisionResult result : values()) {
+                if (result.value == value) return result;
+            }
+            return NO_COLLISION;
+        }
+    }
+
+    /**
+     * Processes ball collisions with holes, updating game state and score.
+     * Handles both correct and incorrect hole collisions with appropriate score adjustments.
+     * @param ballColor Color of the ball
+     * @param holeResult Result of BallStore.checkHole for the ball
+     * @return true if the ball was captured and should be removed
+     */
+    private boolean handleHoleCollisions(int ballColor, int holeResult) {
+        CollisionResult result = CollisionResult.fromValue(holeResult);
+
+        switch (result) {
+            case CORRECT_HOLE:
+                handleCorrectHole(ballColor);
+                return true;
+
+            case WRONG_HOLE:
+                handleWrongHole(ballColor);
+                return true;
+
+            default:
+                // Ball continues moving
+                return false;
+        }
+    }
+
+    private void handleCorrectHole(int ballColor) {
+        score += captureScore[Colour.orGrey(ballColor)]; // unknown colours score as grey
+    }
+
+    private void handleWrongHole(int ballColor) {
+        score -= wrongHoleScore[Colour.orGrey(ballColor)];
+        ballColoursToSpawn.add(ballColor);
+        spawnTimer = spawnInterval * ticksPerSecond;
+    }
+
+    private void checkLevelCompletion() {
+        if (!isLevelComplete()) return;
+
+        handleTimeBonus();
+
+        if (!incrementingScore) {
+            progressLevel();
+        }
+    }
+
+    private boolean isLevelComplete() {
+        return balls.isEmpty() && ballColoursToSpawn.isEmpty();
+    }
+
+    private void handleTimeBonus() {
+        if (!gameEnded && timeRemaining > 0 && !incrementingScore) {
+            incrementingScore = true;
+            incrementedTime = 0;
+            bonusRate.reset();
+        }
+    }
+
+    private void progressLevel() {
+        if (isLastLevel()) {
+            endGame();
+        } else {
+            loadNextLevel();
+        }
+    }
+
+    private void endGame() {
+        gameEnded = true;
+        gameFinished = true;
+    }
+
+    private void loadNextLevel() {
+        currentLevelIndex++;
+        resetLevelState();
+        clearGameObjects();
+        loadLevelData(currentLevelIndex);
+    }
+
+    private void resetLevelState() {
+        levelEnded = false;
+        timeUp = false;
+        gameFinished = false;
+        incrementingScore = false;
+        incrementedTime = 0;
+    }
+
+    private void clearGameObjects() {
+        balls.clear();
+        clearLines();
+    }
+
+    private boolean isLastLevel() {
+        return currentLevelIndex >= levels.size() - 1;
+    }
+
+    /**
+     * Manages ball spawning mechanics including random spawn location selection,
+     * ball creation with initial velocities, and queue management.
+     * Provides controlled access to spawn new balls into the game.
+     */
+    private class BallSpawner {
+        private final Random random = new Random(seed);
+
+        // Simple helper class for spawn coordinates
+        private class SpawnLocation {
+            private final float x;
+            private final float y;
+
+            public SpawnLocation(int[] location) {
+                this.x = location[0];
+                this.y = location[1];
+            }
+
+            public float getX() { return x; }
+            public float getY() { return y; }
+        }
+
+        private SpawnLocation getRandomSpawnLocation() {
+            int[] location = spawnerLocations.get(random.nextInt(spawnerLocations.size()));
+            return new SpawnLocation(location);
+        }
+
+        /**
+         * Adds a ball centred in the cell at the given top-left corner, moving diagonally
+         */
+        private void addBall(float x, float y, int colour) {
+            balls.add(
+                    x + App.CELLSIZE / 2,
+                    y + App.CELLSIZE / 2,
+                    randomVelocity(),
+                    randomVelocity(),
+                    colour
+            );
+        }
+
+        private float randomVelocity() {
+            float velocity = BALL_SPEED / ticksPerSecond; // pixels per tick
+            return random.nextBoolean() ? velocity : -velocity;
+        }
+
+        public boolean spawn() {
+            if (spawnerLocations.isEmpty() || ballColoursToSpawn.isEmpty()) {
+                return false;
+            }
+
+            SpawnLocation spawnLocation = getRandomSpawnLocation();
+            int colour = ballColoursToSpawn.poll();
+
+            addBall(spawnLocation.getX(), spawnLocation.getY(), colour);
+
+            lastBallColour = colour;
+            currentBallIndex++;
+
+            return true;
+        }
+    }
+
+    private final BallSpawner ballSpawner = new BallSpawner();
+
+    // Getters
+    public Board getBoard() { return board; }
+    /** @return Width of the current level in pixels */
+    public int getWorldWidth() { return board.getCols() * App.CELLSIZE; }
+    /** @return Height of the current level in pixels, including the top bar */
+    public int getWorldHeight() { return board.getRows() * App.CELLSIZE + App.TOPBAR; }
+    public ArrayList<Wall> getWalls() { return walls; }
+    public BallStore getBalls() { return balls; }
+    /** @return Timing and counters for the simulation; App adds its render phases to the same profiler */
+    public FrameProfiler getProfiler() { return profiler; }
+    public ArrayList<Line> getLines() { return lines; }
+    public LinePool getLinePool() { return linePool; }
+    /** @return Queue the input thread offers player input to */
+    public InputQueue getInput() { return input; }
+    /** @return Stroke being drawn, or null */
+    public Line getDrawingLine() { return drawingLine; }
+    public ColourQueue getBallColoursToSpawn() { return ballColoursToSpawn; }
+    /** @return Colour of the last spawned ball, or -1 if none is shown */
+    public int getLastBallColour() { return lastBallColour; }
+    /** @return Number of balls spawned from the queue in the current level */
+    public int getSpawnCount() { return currentBallIndex; }
+    public int getSpawnTimer() { return spawnTimer; }
+    public int getScore() { return score; }
+    public int getTimeRemaining() { return timeRemaining; }
+    public int getTick() { return tick; }
+    public int getTicksPerSecond() { return ticksPerSecond; }
+    public long getSeed() { return seed; }
+    public int getCurrentLevelIndex() { return currentLevelIndex; }
+    /** @return Counter that changes whenever a level layout is loaded, including restarts */
+    public int getLevelVersion() { return levelVersion; }
+    public boolean isPaused() { return paused; }
+    public boolean isTimeUp() { return timeUp; }
+    public boolean isLevelEnded() { return levelEnded; }
+    public boolean isGameEnded() { return gameEnded; }
+    public boolean isGameFinished() { return gameFinished; }
+    public boolean isIncrementingScore() { return incrementingScore; }
+    /** @return true if the last tick moved one second of remaining time into the score */
+    public boolean isBonusTickAdvanced() { return bonusTickAdvanced; }
+    /** @return Seconds of remaining time converted to score so far in the current level's bonus */
+    public int getBonusSteps() { return incrementedTime; }
+}
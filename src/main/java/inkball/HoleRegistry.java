@@ -0,0 +1,128 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * Holes of the current level stored in primitive arrays, with a cell lookup
+ * so a ball only tests the holes whose attraction range reaches its cell.
+ * Capture validity comes from Colour's compatibility table.
+ */
+public class HoleRegistry {
+    /** Distance from a hole centre at which balls start being pulled in */
+    static final float HOLE_RANGE = 45.0f;
+
+    private final int rows;
+    private final int cols;
+    /** Indices of the holes reaching each cell, in the order holes were added */
+    private final int[][] cellHoles;
+    private final int[] cellCounts;
+    private float[] x = new float[4];
+    private float[] y = new float[4];
+    private byte[] colour = new byte[4];
+    private int count;
+
+    /**
+     * Creates an empty registry over the board
+     * @param rows Number of board rows
+     * @param cols Number of board columns
+     */
+    public HoleRegistry(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cellHoles = new int[rows * cols][];
+        this.cellCounts = new int[rows * cols];
+    }
+
+    /**
+     * Adds a hole and registers it in every cell its range overlaps
+     * @param centreX Screen x-coordinate of the hole centre
+     * @param centreY Screen y-coordinate of the hole centre
+     * @param colourNumber Hole colour, 0 (grey) to 4
+     */
+    public void add(float centreX, float centreY, int colourNumber) {
+        if (count == x.length) {
+            x = Arrays.copyOf(x, count * 2);
+            y = Arrays.copyOf(y, count * 2);
+            colour = Arrays.copyOf(colour, count * 2);
+        }
+        int hole = count++;
+        x[hole] = centreX;
+        y[hole] = centreY;
+        colour[hole] = (byte) colourNumber;
+
+        int minCol = Math.max(0, col(centreX - HOLE_RANGE));
+        int maxCol = Math.min(cols - 1, col(centreX + HOLE_RANGE));
+        int minRow = Math.max(0, row(centreY - HOLE_RANGE));
+        int maxRow = Math.min(rows - 1, row(centreY + HOLE_RANGE));
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                addToCell(r * cols + c, hole);
+            }
+        }
+    }
+
+    private void addToCell(int cell, int hole) {
+        int[] holes = cellHoles[cell];
+        if (holes == null) {
+            holes = cellHoles[cell] = new int[2];
+        } else if (cellCounts[cell] == holes.length) {
+            holes = cellHoles[cell] = Arrays.copyOf(holes, holes.length * 2);
+        }
+        holes[cellCounts[cell]++] = hole;
+    }
+
+    /** Removes every hole */
+    public void clear() {
+        count = 0;
+        Arrays.fill(cellCounts, 0);
+    }
+
+    /**
+     * Finds the first hole, in the order added, whose range contains the point
+     * @param px Screen x-coordinate
+     * @param py Screen y-coordinate
+     * @return Index of the hole, or -1 if none is in range
+     */
+    public int findInRange(float px, float py) {
+        // Points just off the board use the edge cell, which every hole reaching past the edge covers
+        int c = Math.max(0, Math.min(cols - 1, col(px)));
+        int r = Math.max(0, Math.min(rows - 1, row(py)));
+        int cell = r * cols + c;
+        int[] holes = cellHoles[cell];
+        for (int i = 0; i < cellCounts[cell]; i++) {
+            int hole = holes[i];
+            float dx = x[hole] - px;
+            float dy = y[hole] - py;
+            if (dx * dx + dy * dy <= HOLE_RANGE * HOLE_RANGE) {
+                return hole;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param ballColour Colour number of the ball
+     * @param hole Index of the hole
+     * @return true if the hole accepts a ball of that colour
+     */
+    public boolean canCapture(int ballColour, int hole) {
+        return Colour.canCapture(ballColour, colour[hole]);
+    }
+
+    private int col(float px) {
+        return (int) Math.floor(px / App.CELLSIZE);
+    }
+
+    private int row(float py) {
+        return (int) Math.floor((py - App.TOPBAR) / App.CELLSIZE);
+    }
+
+    public int size() { return count; }
+    public float getX(int hole) { return x[hole]; }
+    /** @return Hole centre x-coordinates, valid up to size() */
+    float[] getXArray() { return x; }
+    /** @return Hole centre y-coordinates, valid up to size() */
+    float[] getYArray() { return y; }
+    public float getY(int hole) { return y[hole]; }
+    public int getColour(int hole) { return colour[hole]; }
+}
@@ -0,0 +1,80 @@
+package inkball;
+
+/**
+ * One line of HUD text: a fixed prefix followed by a number.
+ * The characters are only rewritten when the number changes, into a reused buffer,
+ * so showing the same value every frame costs nothing and a new value allocates nothing.
+ */
+public class HudField {
+    private static final int MAX_LENGTH = 48;
+
+    private final char[] chars = new char[MAX_LENGTH];
+    private final int prefixLength;
+    private int length;
+    private long value;
+    private int decimals = -1;
+
+    /**
+     * @param prefix Text shown before the number, e.g. "Score: "
+     */
+    public HudField(String prefix) {
+        if (prefix.length() > MAX_LENGTH - 21) {
+            throw new IllegalArgumentException("HUD prefix too long: " + prefix);
+        }
+        prefix.getChars(0, prefix.length(), chars, 0);
+        prefixLength = prefix.length();
+        length = prefixLength;
+    }
+
+    /**
+     * Shows a whole number
+     * @param number Value to show
+     * @return true if the text changed
+     */
+    public boolean setInt(long number) {
+        return set(number, 0);
+    }
+
+    /**
+     * Shows a number with one decimal place, as String.format("%.1f") would
+     * @param tenths Value to show, in tenths
+     * @return true if the text changed
+     */
+    public boolean setTenths(long tenths) {
+        return set(tenths, 1);
+    }
+
+    private boolean set(long number, int decimalPlaces) {
+        if (number == value && decimalPlaces == decimals) {
+            return false;
+        }
+        value = number;
+        decimals = decimalPlaces;
+
+        // Write digits backwards from the end of the buffer, then move them after the prefix
+        int end = MAX_LENGTH;
+        int start = end;
+        long magnitude = Math.abs(number); // every value the game shows is far from Long.MIN_VALUE
+        for (int digit = 0; digit <= decimalPlaces || magnitude > 0; digit++) {
+            if (digit == decimalPlaces && decimalPlaces > 0) {
+                chars[--start] = '.';
+            }
+            chars[--start] = (char) ('0' + magnitude % 10);
+            magnitude /= 10;
+        }
+        if (number < 0) {
+            chars[--start] = '-';
+        }
+        System.arraycopy(chars, start, chars, prefixLength, end - start);
+        length = prefixLength + end - start;
+        return true;
+    }
+
+    public int length() { return length; }
+    public char charAt(int i) { return chars[i]; }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
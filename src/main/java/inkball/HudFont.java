@@ -0,0 +1,95 @@
+package inkball;
+
+import processing.core.PApplet;
+import processing.core.PConstants;
+import processing.core.PGraphics;
+import processing.core.PImage;
+
+/**
+ * Pre-rendered glyphs for HUD text. Every character the HUD uses is rendered once into
+ * a strip and cut into one image per glyph, so drawing a HudField is a few image calls
+ * instead of a text() call that lays out and rasterises the string every frame.
+ */
+public class HudFont {
+    /** Characters available to HUD fields */
+    static final String GLYPHS = "0123456789.-: STceimor";
+
+    private final PImage[] glyphs = new PImage[128];
+    private final float[] advances = new float[128];
+    private final int height;
+
+    /**
+     * Renders the glyph strip
+     * @param app Sketch used to create the offscreen strip
+     * @param size Text size in pixels
+     * @param colour Grey level of the text
+     */
+    public HudFont(PApplet app, float size, int colour) {
+        PGraphics measure = app.createGraphics(1, 1);
+        measure.beginDraw();
+        measure.textSize(size);
+        int width = 0;
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            width += (int) Math.ceil(measure.textWidth(GLYPHS.charAt(i)));
+        }
+        height = (int) Math.ceil(measure.textAscent() + measure.textDescent());
+        measure.endDraw();
+
+        PGraphics strip = app.createGraphics(Math.max(width, 1), Math.max(height, 1));
+        strip.beginDraw();
+        strip.clear();
+        strip.textSize(size);
+        strip.textAlign(PConstants.LEFT, PConstants.CENTER);
+        strip.fill(colour);
+        int x = 0;
+        int[] offsets = new int[GLYPHS.length()];
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            char c = GLYPHS.charAt(i);
+            offsets[i] = x;
+            advances[c] = strip.textWidth(c);
+            strip.text(c, x, height / 2f);
+            x += (int) Math.ceil(advances[c]);
+        }
+        strip.endDraw();
+
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            char c = GLYPHS.charAt(i);
+            glyphs[c] = strip.get(offsets[i], 0, (int) Math.ceil(advances[c]), height);
+        }
+    }
+
+    /**
+     * Draws a field, vertically centred on y like textAlign(..., CENTER)
+     * @param app Sketch to draw into
+     * @param field Text to draw
+     * @param x Anchor x-coordinate
+     * @param y Centre y-coordinate
+     * @param alignX PConstants.LEFT or PConstants.RIGHT: which end of the text x is
+     */
+    public void draw(PApplet app, HudField field, float x, float y, int alignX) {
+        if (alignX == PConstants.RIGHT) {
+            x -= width(field);
+        }
+        float top = y - height / 2f;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            PImage glyph = c < glyphs.length ? glyphs[c] : null;
+            if (glyph != null && c != ' ') {
+                app.image(glyph, x, top);
+            }
+            x += c < advances.length ? advances[c] : 0;
+        }
+    }
+
+    /**
+     * @return Width of the field's text in pixels
+     */
+    public float width(HudField field) {
+        float width = 0;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            width += c < advances.length ? advances[c] : 0;
+        }
+        return width;
+    }
+}
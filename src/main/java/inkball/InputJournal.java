@@ -0,0 +1,215 @@
+package inkball;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compact log of every input that changes the simulation, keyed by the tick it arrived on.
+ * Together with the engine's random seed it is enough to replay a session exactly:
+ * the engine is deterministic given its levels, seed and inputs.
+ */
+public class InputJournal {
+    private static final int MAGIC = 0x494E4B4A; // "INKJ"
+    private static final int VERSION = 1;
+
+    /** Kinds of recorded input, stored as their ordinal */
+    private enum EventType {
+        TOGGLE_PAUSE, RESET, ADD_LINE, REMOVE_LINE_NEAR, END
+    }
+
+    private final long seed;
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream out;
+    private int lastTick = 0;
+    private boolean finished = false;
+    private int endTick;
+    private long endChecksum;
+
+    /**
+     * Starts an empty journal
+     * @param seed Random seed of the engine being recorded
+     */
+    public InputJournal(long seed) {
+        this.seed = seed;
+        this.bytes = new ByteArrayOutputStream();
+        this.out = new DataOutputStream(bytes);
+    }
+
+    private InputJournal(long seed, byte[] events) {
+        this(seed);
+        bytes.write(events, 0, events.length);
+        finished = true;
+    }
+
+    void recordTogglePause(int tick) {
+        writeEvent(tick, EventType.TOGGLE_PAUSE);
+    }
+
+    void recordReset(int tick) {
+        writeEvent(tick, EventType.RESET);
+    }
+
+    void recordAddLine(int tick, Line line) {
+        writeEvent(tick, EventType.ADD_LINE);
+        try {
+            writeVarInt(line.getPointCount());
+            for (int i = 0; i < line.getPointCount(); i++) {
+                out.writeFloat(line.getX(i));
+                out.writeFloat(line.getY(i));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // never thrown by a byte array stream
+        }
+    }
+
+    void recordRemoveLineNear(int tick, float x, float y) {
+        writeEvent(tick, EventType.REMOVE_LINE_NEAR);
+        try {
+            out.writeFloat(x);
+            out.writeFloat(y);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Closes the journal with the state the session ended in, so a replay can be checked
+     * @param tick Ticks the engine had run
+     * @param checksum GameEngine.checksum() at that tick
+     */
+    public void finish(int tick, long checksum) {
+        if (finished) return;
+        writeEvent(tick, EventType.END);
+        endTick = tick;
+        endChecksum = checksum;
+        try {
+            out.writeLong(checksum);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        finished = true;
+    }
+
+    /** Events are stored with the tick delta since the previous event as a variable-length int */
+    private void writeEvent(int tick, EventType type) {
+        if (finished) {
+            throw new IllegalStateException("Journal already finished");
+        }
+        try {
+            writeVarInt(tick - lastTick);
+            out.writeByte(type.ordinal());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        lastTick = tick;
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    /**
+     * Replays the journal on a freshly created engine, running every tick at full speed
+     * and applying each input on the tick it was recorded. The engine must have been
+     * created from the same levels as the recorded session and not yet started.
+     * @param engine Engine to drive
+     * @return GameEngine.checksum() after the last recorded tick
+     */
+    public long replay(GameEngine engine) {
+        engine.setSeed(seed);
+        engine.start();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        int tick = 0;
+        try {
+            while (in.available() > 0) {
+                tick += readVarInt(in);
+                EventType type = EventType.values()[in.readUnsignedByte()];
+                engine.advanceTo(tick);
+                switch (type) {
+                    case TOGGLE_PAUSE:
+                        engine.togglePause();
+                        break;
+                    case RESET:
+                        engine.reset();
+                        break;
+                    case ADD_LINE:
+                        Line line = engine.acquireLine();
+                        int points = readVarInt(in);
+                        for (int i = 0; i < points; i++) {
+                            line.addPoint(in.readFloat(), in.readFloat());
+                        }
+                        engine.addLine(line);
+                        break;
+                    case REMOVE_LINE_NEAR:
+                        engine.removeLineNear(in.readFloat(), in.readFloat());
+                        break;
+                    case END:
+                        endTick = tick;
+                        endChecksum = in.readLong();
+                        return engine.checksum();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt journal", e);
+        }
+        return engine.checksum();
+    }
+
+    /**
+     * Writes the journal to a file
+     * @param path Destination file, replaced if it exists
+     * @throws IOException if writing fails
+     */
+    public void write(Path path) throws IOException {
+        try (DataOutputStream file = new DataOutputStream(Files.newOutputStream(path))) {
+            file.writeInt(MAGIC);
+            file.writeInt(VERSION);
+            file.writeLong(seed);
+            bytes.writeTo(file);
+        }
+    }
+
+    /**
+     * Reads a journal written by write()
+     * @param path Journal file
+     * @return The journal, ready to replay
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    public static InputJournal read(Path path) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (data.length < 16 || in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not an input journal of version " + VERSION);
+        }
+        long seed = in.readLong();
+        byte[] events = new byte[data.length - 16];
+        in.readFully(events);
+        return new InputJournal(seed, events);
+    }
+
+    public long getSeed() { return seed; }
+    public boolean isFinished() { return finished; }
+    /** @return Tick the recorded session ended on; known once finished or replayed */
+    public int getEndTick() { return endTick; }
+    /** @return Checksum the recorded session ended with; known once finished or replayed */
+    public long getEndChecksum() { return endChecksum; }
+}
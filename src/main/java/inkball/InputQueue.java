@@ -0,0 +1,110 @@
+package inkball;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer, single-consumer ring of player input events.
+ * The input thread offers events as they arrive; the simulation drains everything
+ * queued at the start of a tick, so input never touches simulation state directly.
+ * Events are stored in parallel primitive arrays and neither side allocates.
+ * Events are applied on the tick that drains them, which is also the tick the journal records.
+ */
+public class InputQueue {
+    /** Left button pressed: starts a stroke */
+    public static final byte PRESS = 0;
+    /** Mouse dragged with the left button held: extends the stroke */
+    public static final byte DRAG = 1;
+    /** Left button released: finishes the stroke */
+    public static final byte RELEASE = 2;
+    /** Right button pressed: removes the line under the pointer */
+    public static final byte ERASE = 3;
+    /** Key typed */
+    public static final byte KEY = 4;
+
+    /** Receives drained events, in the order they were offered */
+    public interface Handler {
+        /**
+         * @param type Event type, e.g. PRESS
+         * @param x World x-coordinate of the pointer
+         * @param y World y-coordinate of the pointer
+         * @param key Key for KEY events
+         */
+        void onInput(byte type, float x, float y, char key);
+    }
+
+    private final int mask;
+    private final byte[] types;
+    private final float[] xs;
+    private final float[] ys;
+    private final char[] keys;
+    /** Next slot to read; only the consumer writes it */
+    private final AtomicLong head = new AtomicLong();
+    /** Next slot to write; only the producer writes it */
+    private final AtomicLong tail = new AtomicLong();
+    /** Producer's last view of head, refreshed only when the ring looks full */
+    private long cachedHead;
+    /** Events refused because the ring was full; only the producer writes it */
+    private volatile long dropped;
+
+    /**
+     * Creates an empty queue
+     * @param capacity Most events held at once, rounded up to a power of two
+     */
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        mask = size - 1;
+        types = new byte[size];
+        xs = new float[size];
+        ys = new float[size];
+        keys = new char[size];
+    }
+
+    /**
+     * Queues an event. Only one thread may offer.
+     * @return false if the queue is full and the event was dropped
+     */
+    public boolean offer(byte type, float x, float y, char key) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                dropped++; // single writer, so the non-atomic increment is safe
+                return false;
+            }
+        }
+        int slot = (int) t & mask;
+        types[slot] = type;
+        xs[slot] = x;
+        ys[slot] = y;
+        keys[slot] = key;
+        tail.lazySet(t + 1); // publishes the slot's contents to the consumer
+        return true;
+    }
+
+    /**
+     * Hands every queued event to the handler and frees their slots in one step.
+     * Only one thread may drain.
+     * @return Number of events handled
+     */
+    public int drain(Handler handler) {
+        long h = head.get();
+        long t = tail.get();
+        for (long i = h; i < t; i++) {
+            int slot = (int) i & mask;
+            handler.onInput(types[slot], xs[slot], ys[slot], keys[slot]);
+        }
+        if (t != h) {
+            head.lazySet(t);
+        }
+        return (int) (t - h);
+    }
+
+    /** @return Events waiting, as seen from the calling thread */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int getCapacity() { return mask + 1; }
+    /** @return Events dropped so far because the queue was full */
+    public long getDroppedCount() { return dropped; }
+}
@@ -0,0 +1,76 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of durations in nanoseconds.
+ * Buckets are powers of two split into four linear steps, so any recorded value is
+ * reported within 25% of its true size while recording stays a few instructions.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 4;
+    private final long[] buckets = new long[64 * SUB_BUCKETS];
+    private long count;
+    private long total;
+    private long max;
+    private long last;
+
+    /**
+     * Adds one sample
+     * @param nanos Duration in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        buckets[bucket(nanos)]++;
+        count++;
+        total += nanos;
+        max = Math.max(max, nanos);
+        last = nanos;
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        int power = 63 - Long.numberOfLeadingZeros(nanos);
+        int step = (int) (nanos >>> (power - 2)) & (SUB_BUCKETS - 1);
+        return power * SUB_BUCKETS + step;
+    }
+
+    /** @return Largest value that falls in the bucket */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int power = bucket / SUB_BUCKETS;
+        long step = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + step + 1) << (power - 2)) - 1;
+    }
+
+    /**
+     * @param fraction Quantile between 0 and 1, e.g. 0.99
+     * @return Upper bound of the bucket holding that quantile, capped at the maximum seen
+     */
+    public long percentile(double fraction) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(max, upperBound(i));
+            }
+        }
+        return max;
+    }
+
+    /** Removes every sample */
+    public void clear() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+        last = 0;
+    }
+
+    public long getCount() { return count; }
+    public long getMax() { return max; }
+    public long getLast() { return last; }
+    public double getMean() { return count == 0 ? 0 : (double) total / count; }
+}
@@ -0,0 +1,276 @@
+package inkball;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Every level of a game, compiled from config.json and the layout files into flat arrays.
+ * Built once by LevelCompiler, or read from its binary form, so switching levels needs
+ * no JSON or text parsing.
+ */
+public class LevelBundle {
+    private static final int MAGIC = 0x494E4B42; // "INKB"
+    private static final int VERSION = 2;
+    private static final int COLOURS = 5;
+    /** Largest number of rows or columns a level may have; cells are stored as signed shorts */
+    static final int MAX_DIMENSION = Short.MAX_VALUE;
+
+    /**
+     * One compiled level. Entity lists hold (row, col[, colour]) in the order the
+     * original layout scan created them. Rows and columns are at most MAX_DIMENSION.
+     */
+    static class Level {
+        final int time;
+        final int spawnInterval;
+        final float scoreIncreaseModifier;
+        final float scoreDecreaseModifier;
+        final int rows;
+        final int cols;
+        /** Final board contents as TileCode values, row-major */
+        final byte[] board;
+        /** Colour numbers of the balls to spawn, in order */
+        final byte[] spawnQueue;
+        final short[] wallRows, wallCols;
+        final byte[] wallColours;
+        final short[] spawnerRows, spawnerCols;
+        final short[] ballRows, ballCols;
+        final byte[] ballColours;
+        final short[] holeRows, holeCols;
+        final byte[] holeColours;
+
+        Level(int time, int spawnInterval, float scoreIncreaseModifier, float scoreDecreaseModifier,
+              int rows, int cols, byte[] board, byte[] spawnQueue,
+              short[] wallRows, short[] wallCols, byte[] wallColours,
+              short[] spawnerRows, short[] spawnerCols,
+              short[] ballRows, short[] ballCols, byte[] ballColours,
+              short[] holeRows, short[] holeCols, byte[] holeColours) {
+            this.time = time;
+            this.spawnInterval = spawnInterval;
+            this.scoreIncreaseModifier = scoreIncreaseModifier;
+            this.scoreDecreaseModifier = scoreDecreaseModifier;
+            this.rows = rows;
+            this.cols = cols;
+            this.board = board;
+            this.spawnQueue = spawnQueue;
+            this.wallRows = wallRows;
+            this.wallCols = wallCols;
+            this.wallColours = wallColours;
+            this.spawnerRows = spawnerRows;
+            this.spawnerCols = spawnerCols;
+            this.ballRows = ballRows;
+            this.ballCols = ballCols;
+            this.ballColours = ballColours;
+            this.holeRows = holeRows;
+            this.holeCols = holeCols;
+            this.holeColours = holeColours;
+        }
+    }
+
+    private final Level[] levels;
+    /** Base score per ball colour for a correct capture */
+    private final int[] scoreIncrease;
+    /** Base score per ball colour for a wrong capture */
+    private final int[] scoreDecrease;
+
+    LevelBundle(Level[] levels, int[] scoreIncrease, int[] scoreDecrease) {
+        this.levels = levels;
+        this.scoreIncrease = scoreIncrease;
+        this.scoreDecrease = scoreDecrease;
+    }
+
+    public int size() { return levels.length; }
+
+    /** @return Most balls any one level has, queued to spawn or placed on the board */
+    public int getMostBalls() {
+        int most = 0;
+        for (Level level : levels) {
+            most = Math.max(most, level.spawnQueue.length + level.ballColours.length);
+        }
+        return most;
+    }
+    Level getLevel(int index) { return levels[index]; }
+    public int getScoreIncrease(int colour) { return scoreIncrease[colour]; }
+    public int getScoreDecrease(int colour) { return scoreDecrease[colour]; }
+
+    /**
+     * Writes the bundle in its binary form
+     * @param out Destination stream
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        for (int colour = 0; colour < COLOURS; colour++) {
+            data.writeInt(scoreIncrease[colour]);
+            data.writeInt(scoreDecrease[colour]);
+        }
+        data.writeInt(levels.length);
+        for (Level level : levels) {
+            data.writeInt(level.time);
+            data.writeInt(level.spawnInterval);
+            data.writeFloat(level.scoreIncreaseModifier);
+            data.writeFloat(level.scoreDecreaseModifier);
+            data.writeShort(level.rows);
+            data.writeShort(level.cols);
+            data.write(level.board);
+            writeBytes(data, level.spawnQueue);
+            writeCells(data, level.wallRows, level.wallCols);
+            data.write(level.wallColours);
+            writeCells(data, level.spawnerRows, level.spawnerCols);
+            writeCells(data, level.ballRows, level.ballCols);
+            data.write(level.ballColours);
+            writeCells(data, level.holeRows, level.holeCols);
+            data.write(level.holeColours);
+        }
+        data.flush();
+    }
+
+    private static void writeBytes(DataOutputStream data, byte[] values) throws IOException {
+        data.writeInt(values.length);
+        data.write(values);
+    }
+
+    private static void writeCells(DataOutputStream data, short[] rows, short[] cols) throws IOException {
+        data.writeInt(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            data.writeShort(rows[i]);
+            data.writeShort(cols[i]);
+        }
+    }
+
+    /**
+     * Reads a bundle file by memory-mapping it
+     * @param path Bundle written by write()
+     * @return The bundle
+     * @throws IOException if the file cannot be read or is not a level bundle
+     */
+    public static LevelBundle read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Checks whether a compiled bundle still reflects its config
+     * @param bundle Bundle file written by LevelCompiler
+     * @param config The config.json it was compiled from
+     * @return true if the bundle exists and was written no earlier than the config was last changed
+     * @throws IOException if the files' times cannot be read
+     */
+    public static boolean isUpToDate(Path bundle, Path config) throws IOException {
+        if (!Files.isRegularFile(bundle)) {
+            return false;
+        }
+        return !Files.exists(config)
+                || Files.getLastModifiedTime(bundle).compareTo(Files.getLastModifiedTime(config)) >= 0;
+    }
+
+    /**
+     * Reads a bundle from its binary form
+     * @param buffer Bundle bytes, big-endian
+     * @return The bundle
+     * @throws IOException if the bytes are not a level bundle of this version, or are truncated or corrupt
+     */
+    public static LevelBundle read(ByteBuffer buffer) throws IOException {
+        try {
+            return readLevels(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Level bundle is truncated", e);
+        }
+    }
+
+    private static LevelBundle readLevels(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a level bundle of version " + VERSION);
+        }
+        int[] scoreIncrease = new int[COLOURS];
+        int[] scoreDecrease = new int[COLOURS];
+        for (int colour = 0; colour < COLOURS; colour++) {
+            scoreIncrease[colour] = buffer.getInt();
+            scoreDecrease[colour] = buffer.getInt();
+        }
+
+        Level[] levels = new Level[checkCount(buffer, buffer.getInt(), 1)];
+        for (int i = 0; i < levels.length; i++) {
+            int time = buffer.getInt();
+            int spawnInterval = buffer.getInt();
+            float increaseModifier = buffer.getFloat();
+            float decreaseModifier = buffer.getFloat();
+            int rows = Short.toUnsignedInt(buffer.getShort());
+            int cols = Short.toUnsignedInt(buffer.getShort());
+            if (rows > MAX_DIMENSION || cols > MAX_DIMENSION) {
+                throw new IOException("Level bundle has a " + cols + "x" + rows + " level");
+            }
+            byte[] board = readBytes(buffer, rows * cols);
+            byte[] spawnQueue = readBytes(buffer, buffer.getInt());
+
+            short[][] walls = readCells(buffer);
+            byte[] wallColours = readBytes(buffer, walls[0].length);
+            short[][] spawners = readCells(buffer);
+            short[][] balls = readCells(buffer);
+            byte[] ballColours = readBytes(buffer, balls[0].length);
+            short[][] holes = readCells(buffer);
+            byte[] holeColours = readBytes(buffer, holes[0].length);
+
+            levels[i] = new Level(time, spawnInterval, increaseModifier, decreaseModifier,
+                    rows, cols, board, spawnQueue,
+                    walls[0], walls[1], wallColours,
+                    spawners[0], spawners[1],
+                    balls[0], balls[1], ballColours,
+                    holes[0], holes[1], holeColours);
+        }
+        return new LevelBundle(levels, scoreIncrease, scoreDecrease);
+    }
+
+    /**
+     * Rejects a stored count that is negative or needs more bytes than are left,
+     * before anything is allocated for it
+     * @param size Bytes each counted item takes
+     * @return The count
+     */
+    private static int checkCount(ByteBuffer buffer, int count, int size) throws IOException {
+        if (count < 0 || (long) count * size > buffer.remaining()) {
+            throw new IOException("Level bundle is corrupt: count " + count + " at byte " + buffer.position());
+        }
+        return count;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int length) throws IOException {
+        byte[] values = new byte[checkCount(buffer, length, 1)];
+        buffer.get(values);
+        return values;
+    }
+
+    /** @return {rows, cols} */
+    private static short[][] readCells(ByteBuffer buffer) throws IOException {
+        int count = checkCount(buffer, buffer.getInt(), 2 * Short.BYTES);
+        short[][] cells = new short[2][count];
+        for (int i = 0; i < count; i++) {
+            cells[0][i] = buffer.getShort();
+            cells[1][i] = buffer.getShort();
+        }
+        return cells;
+    }
+
+    /**
+     * Writes the bundle to a file
+     * @param path Destination file, replaced if it exists
+     * @throws IOException if writing fails
+     */
+    public void write(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(new BufferedOutputStream(out));
+        }
+    }
+}
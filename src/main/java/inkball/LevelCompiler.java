@@ -0,0 +1,211 @@
+package inkball;
+
+import processing.data.JSONArray;
+import processing.data.JSONObject;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Turns config.json and its layout files into a LevelBundle.
+ * All parsing happens here, once; the engine only ever copies compiled arrays.
+ */
+public class LevelCompiler {
+
+    /** Growable list of board cells with an optional colour per cell */
+    private static class CellList {
+        short[] rows = new short[8];
+        short[] cols = new short[8];
+        byte[] colours = new byte[8];
+        int count;
+
+        void add(int row, int col, int colour) {
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+                cols = Arrays.copyOf(cols, count * 2);
+                colours = Arrays.copyOf(colours, count * 2);
+            }
+            rows[count] = (short) row;
+            cols[count] = (short) col;
+            colours[count] = (byte) colour;
+            count++;
+        }
+
+        short[] rows() { return Arrays.copyOf(rows, count); }
+        short[] cols() { return Arrays.copyOf(cols, count); }
+        byte[] colours() { return Arrays.copyOf(colours, count); }
+    }
+
+    private LevelCompiler() {
+    }
+
+    /**
+     * Compiles every level named in the config
+     * @param config Parsed contents of config.json
+     * @param layoutLoader Loads the lines of a level layout file by name
+     * @return Bundle holding every level and the score tables
+     */
+    public static LevelBundle compile(JSONObject config, Function<String, String[]> layoutLoader) {
+        JSONArray levelsArray = config.getJSONArray("levels");
+        LevelBundle.Level[] levels = new LevelBundle.Level[levelsArray.size()];
+        for (int i = 0; i < levels.length; i++) {
+            JSONObject levelData = levelsArray.getJSONObject(i);
+            String layout = levelData.getString("layout");
+            String[] lines = layoutLoader.apply(layout);
+            if (lines == null) {
+                System.out.println("The file " + layout + " is missing or inaccessible");
+                lines = new String[0];
+            }
+            levels[i] = compileLevel(levelData, lines);
+        }
+
+        return new LevelBundle(levels,
+                scoreTable(config.getJSONObject("score_increase_from_hole_capture")),
+                scoreTable(config.getJSONObject("score_decrease_from_wrong_hole")));
+    }
+
+    /**
+     * Compiles a config file and the layouts beside it
+     * @param configPath Path to config.json; layout paths are resolved against its directory
+     * @return The compiled bundle
+     * @throws IOException if the config file cannot be read
+     */
+    public static LevelBundle compile(String configPath) throws IOException {
+        Path configFile = Paths.get(configPath);
+        Path baseDir = configFile.toAbsolutePath().getParent();
+        JSONObject config;
+        try (Reader reader = Files.newBufferedReader(configFile, StandardCharsets.UTF_8)) {
+            config = new JSONObject(reader);
+        }
+        return compile(config, layout -> readLines(baseDir.resolve(layout)));
+    }
+
+    private static String[] readLines(Path path) {
+        try {
+            return Files.readAllLines(path, StandardCharsets.UTF_8).toArray(new String[0]);
+        } catch (IOException e) {
+            System.out.println("The file " + path + " is missing or inaccessible");
+            return new String[0];
+        }
+    }
+
+    private static int[] scoreTable(JSONObject values) {
+        int[] table = new int[Colour.COUNT];
+        for (int colour = 0; colour < table.length; colour++) {
+            table[colour] = values.getInt(Colour.name(colour));
+        }
+        return table;
+    }
+
+    private static LevelBundle.Level compileLevel(JSONObject levelData, String[] layout) {
+        String layoutName = levelData.getString("layout");
+        // Levels fill at least the window and grow to fit larger layouts
+        int rows = Math.max((App.HEIGHT - App.TOPBAR) / App.CELLSIZE, layout.length);
+        int cols = App.WIDTH / App.CELLSIZE;
+        for (String line : layout) {
+            cols = Math.max(cols, line.length());
+        }
+        if (rows > LevelBundle.MAX_DIMENSION || cols > LevelBundle.MAX_DIMENSION) {
+            throw new IllegalArgumentException("Layout " + layoutName + " is " + rows + "x" + cols
+                    + " cells; levels may have at most " + LevelBundle.MAX_DIMENSION + " rows and columns");
+        }
+        byte[] board = new byte[rows * cols]; // every cell starts as TileCode.TILE
+        CellList walls = new CellList();
+        CellList spawners = new CellList();
+        CellList balls = new CellList();
+        CellList holes = new CellList();
+
+        // Same scan as the original loader, so later characters overwrite earlier cells identically
+        for (int row = 0; row < layout.length; row++) {
+            String line = layout[row];
+            for (int col = 0; col < line.length(); col++) {
+                char tile = line.charAt(col);
+                char next = (col + 1 < line.length()) ? line.charAt(col + 1) : ' ';
+                int cell = row * cols + col;
+                switch (tile) {
+                    case 'X': case '1': case '2': case '3': case '4':
+                        int wallColour = tile == 'X' ? 0 : tile - '0';
+                        walls.add(row, col, wallColour);
+                        board[cell] = TileCode.wall(wallColour);
+                        break;
+                    case 'S':
+                        spawners.add(row, col, 0);
+                        board[cell] = TileCode.ENTRYPOINT;
+                        break;
+                    case 'B':
+                        // The colour digit is the ball's second cell, so it is always on the board
+                        balls.add(row, col, colourDigit(layoutName, row, col, next));
+                        board[cell] = TileCode.TILE;
+                        board[cell + 1] = TileCode.TILE;
+                        col++;
+                        break;
+                    case 'H':
+                        int holeColour = colourDigit(layoutName, row, col, next);
+                        if (row + 1 >= rows) {
+                            throw new IllegalArgumentException("Layout " + layoutName + ": hole at row " + row
+                                    + ", column " + col + " needs the row below it, but it is the last row");
+                        }
+                        holes.add(row, col, holeColour);
+                        board[cell] = TileCode.hole(holeColour);
+                        board[cell + cols] = TileCode.hole(holeColour);
+                        board[cell + cols + 1] = TileCode.hole(holeColour);
+                        board[cell + 1] = TileCode.TILE;
+                        col++;
+                        break;
+                    default:
+                        board[cell] = TileCode.TILE;
+                }
+            }
+        }
+
+        JSONArray ballsArray = levelData.getJSONArray("balls");
+        byte[] spawnQueue = new byte[ballsArray.size()];
+        for (int i = 0; i < spawnQueue.length; i++) {
+            spawnQueue[i] = (byte) Colour.byName(ballsArray.getString(i));
+        }
+
+        return new LevelBundle.Level(
+                levelData.getInt("time"),
+                levelData.getInt("spawn_interval"),
+                (float) levelData.getDouble("score_increase_from_hole_capture_modifier"),
+                (float) levelData.getDouble("score_decrease_from_wrong_hole_modifier"),
+                rows, cols, board, spawnQueue,
+                walls.rows(), walls.cols(), walls.colours(),
+                spawners.rows(), spawners.cols(),
+                balls.rows(), balls.cols(), balls.colours(),
+                holes.rows(), holes.cols(), holes.colours());
+    }
+
+    /**
+     * @return Colour number of the digit after a ball or hole
+     * @throws IllegalArgumentException if the digit is missing or not a colour
+     */
+    private static int colourDigit(String layoutName, int row, int col, char digit) {
+        int colour = Character.getNumericValue(digit);
+        if (colour < 0 || colour >= Colour.COUNT) {
+            throw new IllegalArgumentException("Layout " + layoutName + ": expected a colour digit 0-"
+                    + (Colour.COUNT - 1) + " after row " + row + ", column " + col + " but found '" + digit + "'");
+        }
+        return colour;
+    }
+
+    /**
+     * Compiles a config into a bundle file the game can load without parsing
+     * @param args config.json path and output path
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: LevelCompiler <config.json> <levels.bin>");
+            return;
+        }
+        LevelBundle bundle = compile(args[0]);
+        bundle.write(Paths.get(args[1]));
+        System.out.println("Compiled " + bundle.size() + " levels to " + args[1]);
+    }
+}
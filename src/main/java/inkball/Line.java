@@ -1,55 +1,64 @@
 package inkball;
 
-import java.awt.Point;
-import java.util.ArrayList;
 import processing.core.PApplet;
+
+import java.util.Arrays;
 /**
  * Represents a drawable line that can interact with balls and handle mouse input.
  * Implements collision detection and reflection physics.
  */
 public class Line implements Draw {
     private static final float THICKNESS = 10.0f;
-    private static final float HALF_THICKNESS = THICKNESS / 2;
-    /** Collection of points forming the line */
-    private final ArrayList<Point> points;
-    /** Reusable vector for calculations */
-    private final Vector2D tempVector;
+    static final float HALF_THICKNESS = THICKNESS / 2;
     /**
-     * Utility class for 2D vector operations
+     * Largest distance a drawn point may be dropped from the stored stroke, well inside HALF_THICKNESS.
+     * Mouse samples are whole pixels, so it is above one pixel for the radial filter to drop neighbours.
      */
-    private static class Vector2D {
-        float x, y;
-
-        Vector2D() {
-            this.x = 0;
-            this.y = 0;
-        }
-
-        void set(float x, float y) {
-            this.x = x;
-            this.y = y;
-        }
-        /** Normalizes vector to unit length */
-        void normalize() {
-            float length = (float) Math.sqrt(x * x + y * y);
-            if (length > 0) {
-                x /= length;
-                y /= length;
-            }
-        }
-        /** Calculates dot product with given vector */
-        float dot(float ox, float oy) {
-            return x * ox + y * oy;
-        }
-    }
+    static final float STROKE_TOLERANCE = 1.5f;
+    /** Serial of a line that is in no SegmentGrid */
+    static final int NOT_PLACED = -1;
+    /** Points forming the line, packed */
+    private final Polyline points;
+    /** Segment references handed to SegmentGrid, kept for reuse while the line is pooled */
+    private SegmentGrid.Segment[] segments = new SegmentGrid.Segment[0];
+    /** Order the line was added to its SegmentGrid, or NOT_PLACED */
+    int serial = NOT_PLACED;
     /** Creates new empty line */
     public Line() {
-        points = new ArrayList<>();
-        tempVector = new Vector2D();
+        points = new Polyline();
     }
     /** Adds point to line at specified coordinates */
     public void addPoint(float x, float y) {
-        points.add(new Point((int) x, (int) y));
+        points.add((int) x, (int) y);
+    }
+    /**
+     * Adds a freehand stroke point, dropping points that add nothing to the line's shape.
+     * Every dropped point stays within twice STROKE_TOLERANCE of the stored line.
+     */
+    public void addStrokePoint(float x, float y) {
+        points.addSimplified((int) x, (int) y, STROKE_TOLERANCE);
+    }
+    /** Completes a stroke built with addStrokePoint, reducing it to its final shape */
+    public void finishStroke() {
+        points.finishStroke(STROKE_TOLERANCE);
+    }
+    /** Clears the line so a pool can hand it out again, keeping its buffers */
+    public void reset() {
+        points.clear();
+        serial = NOT_PLACED;
+    }
+    /**
+     * @param i Index of the segment's first point
+     * @return Reusable reference to segment i of this line
+     */
+    SegmentGrid.Segment getSegment(int i) {
+        if (i >= segments.length) {
+            segments = Arrays.copyOf(segments, Math.max(i + 1, segments.length * 2));
+        }
+        if (segments[i] == null) {
+            segments[i] = new SegmentGrid.Segment(this, i);
+        }
+        return segments[i];
     }
     /** Renders line on screen */
     public void draw(App app) {
@@ -57,9 +66,7 @@ public class Line implements Draw {
 
         app.strokeWeight(THICKNESS);
         for (int i = 0; i < points.size() - 1; i++) {
-            Point p1 = points.get(i);
-            Point p2 = points.get(i + 1);
-            app.line(p1.x, p1.y, p2.x, p2.y);
+            app.line(points.getX(i), points.getY(i), points.getX(i + 1), points.getY(i + 1));
         }
     }
 
@@ -67,61 +74,103 @@ public class Line implements Draw {
         return checkPointNearLine(mouseX, mouseY, HALF_THICKNESS);
     }
     /**
-     * Handles ball collision with line
+     * Handles collision between the line and a packed ball
+     * @param balls Store holding the ball
+     * @param index Index of the ball in the store
      * @return true if collision occurred
      */
-    public boolean handleCollision(Ball ball) {
-        float nextX = ball.getX() + ball.getVx();
-        float nextY = ball.getY() + ball.getVy();
-
-        for (int i = 0; i < points.size() - 1; i++) {
-            if (checkCollisionWithSegment(ball, nextX, nextY, i)) {
-                return true;
-            }
+    public boolean handleCollision(BallStore balls, int index) {
+        float vx = balls.getVx(index);
+        float vy = balls.getVy(index);
+        int segment = findCollidingSegment(balls.getX(index), balls.getY(index), vx, vy, balls.getRadius(index));
+        if (segment < 0) {
+            return false;
         }
-        return false;
+
+        reflect(segment, balls, index);
+        return true;
     }
-    /** Checks collision with specific line segment */
-    private boolean checkCollisionWithSegment(Ball ball, float nextX, float nextY, int segmentIndex) {
-        Point p1 = points.get(segmentIndex);
-        Point p2 = points.get(segmentIndex + 1);
 
-        if (ballNearSegment(nextX, nextY, p1.x, p1.y, p2.x, p2.y)) {
-            calculateReflection(ball, p1, p2);
-            return true;
-        }
-        return false;
+    /**
+     * Tests one segment against a ball's next position
+     * @param segmentIndex Index of the segment's first point
+     * @return true if the ball will touch the segment
+     */
+    boolean ballNearSegment(int segmentIndex, float nextX, float nextY, float radius) {
+        int i = segmentIndex;
+        return ballNearSegment(nextX, nextY, points.getX(i), points.getY(i), points.getX(i + 1), points.getY(i + 1), radius);
+    }
+
+    /**
+     * Tests whether a point lies within half the line thickness of one segment
+     * @param segmentIndex Index of the segment's first point
+     */
+    boolean pointNearSegment(int segmentIndex, float px, float py) {
+        int i = segmentIndex;
+        return distanceToSegment(px, py, points.getX(i), points.getY(i), points.getX(i + 1), points.getY(i + 1))
+                <= HALF_THICKNESS;
+    }
+
+    /**
+     * Time of impact of a moving ball with one segment
+     * @param segmentIndex Index of the segment's first point
+     * @return Fraction of the motion (mx, my) at which the ball touches, or SweptCollision.NO_HIT
+     */
+    float sweptTime(int segmentIndex, float px, float py, float mx, float my, float radius) {
+        int i = segmentIndex;
+        return SweptCollision.circleCapsule(px, py, mx, my, radius,
+                points.getX(i), points.getY(i), points.getX(i + 1), points.getY(i + 1), HALF_THICKNESS);
     }
 
-    private void calculateReflection(Ball ball, Point p1, Point p2) {
-        tempVector.set(p2.x - p1.x, p2.y - p1.y);
-        float normalX = -tempVector.y;
-        float normalY = tempVector.x;
+    /**
+     * Reflects a packed ball's velocity about one segment's normal.
+     * Works only in locals, so balls may bounce off the same line from several threads at once.
+     * @param segmentIndex Index of the segment's first point
+     */
+    void reflect(int segmentIndex, BallStore balls, int index) {
+        int i = segmentIndex;
+        float normalX = points.getY(i) - points.getY(i + 1);
+        float normalY = points.getX(i + 1) - points.getX(i);
+        float length = (float) Math.sqrt(normalX * normalX + normalY * normalY);
+        if (length > 0) {
+            normalX /= length;
+            normalY /= length;
+        }
 
-        tempVector.set(normalX, normalY);
-        tempVector.normalize();
+        float vx = balls.getVx(index);
+        float vy = balls.getVy(index);
+        float dotProduct = normalX * vx + normalY * vy;
+        balls.setVelocity(index, vx - 2 * dotProduct * normalX, vy - 2 * dotProduct * normalY);
+    }
 
-        float ballVx = ball.getVx();
-        float ballVy = ball.getVy();
-        float dotProduct = tempVector.dot(ballVx, ballVy);
+    /**
+     * Finds the first segment the ball will touch after its next move
+     * @return Index of the segment's first point, or -1 if none
+     */
+    private int findCollidingSegment(float x, float y, float vx, float vy, float radius) {
+        float nextX = x + vx;
+        float nextY = y + vy;
 
-        ball.setVx(ballVx - 2 * dotProduct * tempVector.x);
-        ball.setVy(ballVy - 2 * dotProduct * tempVector.y);
+        for (int i = 0; i < points.size() - 1; i++) {
+            if (ballNearSegment(nextX, nextY, points.getX(i), points.getY(i), points.getX(i + 1), points.getY(i + 1), radius)) {
+                return i;
+            }
+        }
+        return -1;
     }
+
     /** Utility methods for distance calculations */
     private boolean checkPointNearLine(float px, float py, float threshold) {
         for (int i = 0; i < points.size() - 1; i++) {
-            Point p1 = points.get(i);
-            Point p2 = points.get(i + 1);
-            if (distanceToSegment(px, py, p1.x, p1.y, p2.x, p2.y) <= threshold) {
+            if (distanceToSegment(px, py, points.getX(i), points.getY(i), points.getX(i + 1), points.getY(i + 1)) <= threshold) {
                 return true;
             }
         }
         return false;
     }
 
-    private boolean ballNearSegment(float px, float py, float x1, float y1, float x2, float y2) {
-        return distanceToSegment(px, py, x1, y1, x2, y2) <= HALF_THICKNESS + Ball.radius;
+    private boolean ballNearSegment(float px, float py, float x1, float y1, float x2, float y2, float radius) {
+        return distanceToSegment(px, py, x1, y1, x2, y2) <= HALF_THICKNESS + radius;
     }
 
     private float distanceToSegment(float px, float py, float x1, float y1, float x2, float y2) {
@@ -144,7 +193,7 @@ public class Line implements Draw {
         return (float) Math.sqrt(dx * dx + dy * dy);
     }
 
-    public ArrayList<Point> getPoints() {
-        return points;
-    }
+    public int getPointCount() { return points.size(); }
+    public float getX(int i) { return points.getX(i); }
+    public float getY(int i) { return points.getY(i); }
 }
@@ -0,0 +1,30 @@
+package inkball;
+
+import java.util.ArrayList;
+
+/**
+ * Free list of lines. Lines removed from play are reset and handed out again for the
+ * next stroke, keeping their point buffers and segment references, so drawing and
+ * erasing lines stops allocating once the pool holds as many lines as a level needs.
+ */
+public class LinePool {
+    private final ArrayList<Line> free = new ArrayList<>();
+
+    /**
+     * @return An empty line, recycled if one is free
+     */
+    public Line acquire() {
+        return free.isEmpty() ? new Line() : free.remove(free.size() - 1);
+    }
+
+    /**
+     * Returns a line to the pool. The caller must not use it afterwards.
+     * @param line Line no longer in play
+     */
+    public void release(Line line) {
+        line.reset();
+        free.add(line);
+    }
+
+    public int getFreeCount() { return free.size(); }
+}
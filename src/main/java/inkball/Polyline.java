@@ -0,0 +1,215 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * Points of a line packed into one float array as x0, y0, x1, y1, ...
+ * Freehand strokes can be simplified as they are drawn: points closer than a radial
+ * distance to the previous one are dropped, straight runs collapse into one segment,
+ * and the finished stroke is reduced with Douglas-Peucker over everything that was kept.
+ * A run is tracked as the wedge of chord directions from its anchor that keep every
+ * point of the run within tolerance, so each new point is checked in constant time.
+ */
+public class Polyline {
+    private float[] coords = new float[16];
+    private int count;
+
+    /** Radially filtered stroke points, kept until the stroke is finished */
+    private float[] raw = new float[0];
+    private int rawCount;
+    /** Index in raw of the last vertex fixed while drawing */
+    private int anchor;
+    /** Number of vertices fixed while drawing; any vertex after them is the live tail */
+    private int fixed;
+    /** Direction the wedge angles are measured from, zero until a run point leaves the tolerance circle */
+    private float wedgeX, wedgeY;
+    /** Chord angles, relative to the wedge direction, that keep every run point within tolerance */
+    private float wedgeMin, wedgeMax;
+    /** Largest squared distance of a run point from the anchor */
+    private float runReachSquared;
+    private int[] stack = new int[0];
+    private boolean[] keep = new boolean[0];
+
+    /**
+     * Appends a point exactly as given
+     * @param x Screen x-coordinate
+     * @param y Screen y-coordinate
+     */
+    public void add(float x, float y) {
+        if (count * 2 == coords.length) {
+            coords = Arrays.copyOf(coords, coords.length * 2);
+        }
+        coords[count * 2] = x;
+        coords[count * 2 + 1] = y;
+        count++;
+    }
+
+    /**
+     * Appends a stroke point, simplifying on the fly. The stored line always ends at
+     * the latest kept point, so it can be drawn while the stroke is in progress.
+     * @param x Screen x-coordinate
+     * @param y Screen y-coordinate
+     * @param tolerance Largest distance a dropped point may be from the stored line
+     */
+    public void addSimplified(float x, float y, float tolerance) {
+        if (rawCount > 0) {
+            float dx = x - raw[rawCount * 2 - 2];
+            float dy = y - raw[rawCount * 2 - 1];
+            if (dx * dx + dy * dy < tolerance * tolerance) {
+                return;
+            }
+        }
+        addRaw(x, y);
+
+        if (rawCount == 1) {
+            anchor = 0;
+            fixed = 1;
+            startRun();
+            add(x, y);
+            return;
+        }
+
+        // Extend the current run while every point since the anchor stays near the new chord
+        int last = rawCount - 1;
+        if (!chordFitsRun(x, y)) {
+            anchor = last - 1;
+            fixed++;
+            startRun();
+        }
+        addToRun(x, y, tolerance);
+        count = fixed;
+        add(x, y);
+    }
+
+    private void startRun() {
+        wedgeX = 0;
+        wedgeY = 0;
+        runReachSquared = 0;
+    }
+
+    /**
+     * A chord from the anchor to (x, y) passes within tolerance of every run point if its
+     * direction is inside the wedge. Points are only measured to the chord's line, so the
+     * chord must also reach at least as far as the run has, keeping every point beside it.
+     */
+    private boolean chordFitsRun(float x, float y) {
+        if (wedgeX == 0 && wedgeY == 0) {
+            return true; // every run point is within tolerance of the anchor itself
+        }
+        float dx = x - raw[anchor * 2];
+        float dy = y - raw[anchor * 2 + 1];
+        if (dx * dx + dy * dy < runReachSquared) {
+            return false;
+        }
+        float angle = angleFromWedge(dx, dy);
+        return angle >= wedgeMin && angle <= wedgeMax;
+    }
+
+    /** Narrows the wedge to the chord directions passing within tolerance of a new run point */
+    private void addToRun(float x, float y, float tolerance) {
+        float dx = x - raw[anchor * 2];
+        float dy = y - raw[anchor * 2 + 1];
+        float distanceSquared = dx * dx + dy * dy;
+        runReachSquared = Math.max(runReachSquared, distanceSquared);
+        if (distanceSquared <= tolerance * tolerance) {
+            return;
+        }
+        float distance = (float) Math.sqrt(distanceSquared);
+        float spread = (float) Math.asin(tolerance / distance);
+        if (wedgeX == 0 && wedgeY == 0) {
+            wedgeX = dx / distance;
+            wedgeY = dy / distance;
+            wedgeMin = -spread;
+            wedgeMax = spread;
+            return;
+        }
+        float angle = angleFromWedge(dx, dy);
+        wedgeMin = Math.max(wedgeMin, angle - spread);
+        wedgeMax = Math.min(wedgeMax, angle + spread);
+    }
+
+    private float angleFromWedge(float dx, float dy) {
+        return (float) Math.atan2(wedgeX * dy - wedgeY * dx, wedgeX * dx + wedgeY * dy);
+    }
+
+    /**
+     * Finishes a stroke begun with addSimplified, replacing the drawn vertices with
+     * a Douglas-Peucker reduction of every kept stroke point
+     * @param tolerance Largest distance a kept point may be from the stored line
+     */
+    public void finishStroke(float tolerance) {
+        if (rawCount == 0) return;
+
+        if (keep.length < rawCount) {
+            keep = new boolean[rawCount];
+            stack = new int[rawCount * 2];
+        }
+        Arrays.fill(keep, 0, rawCount, false);
+        keep[0] = true;
+        keep[rawCount - 1] = true;
+
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = rawCount - 1;
+        while (top > 0) {
+            int end = stack[--top];
+            int start = stack[--top];
+            int farthest = -1;
+            float farthestDistance = tolerance * tolerance;
+            for (int i = start + 1; i < end; i++) {
+                float distance = distanceToChordSquared(i, start, end);
+                if (distance > farthestDistance) {
+                    farthestDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                stack[top++] = start;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = end;
+            }
+        }
+
+        count = 0;
+        for (int i = 0; i < rawCount; i++) {
+            if (keep[i]) {
+                add(raw[i * 2], raw[i * 2 + 1]);
+            }
+        }
+        rawCount = 0;
+    }
+
+    private void addRaw(float x, float y) {
+        if (rawCount * 2 == raw.length) {
+            raw = Arrays.copyOf(raw, Math.max(16, raw.length * 2));
+        }
+        raw[rawCount * 2] = x;
+        raw[rawCount * 2 + 1] = y;
+        rawCount++;
+    }
+
+    /** Squared distance from raw point i to the segment between raw points start and end */
+    private float distanceToChordSquared(int i, int start, int end) {
+        float px = raw[i * 2], py = raw[i * 2 + 1];
+        float x1 = raw[start * 2], y1 = raw[start * 2 + 1];
+        float x2 = raw[end * 2], y2 = raw[end * 2 + 1];
+        float lengthSquared = (x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1);
+        float t = lengthSquared == 0 ? 0
+                : Math.max(0, Math.min(1, ((px - x1) * (x2 - x1) + (py - y1) * (y2 - y1)) / lengthSquared));
+        float dx = px - (x1 + t * (x2 - x1));
+        float dy = py - (y1 + t * (y2 - y1));
+        return dx * dx + dy * dy;
+    }
+
+    /** Removes every point */
+    public void clear() {
+        count = 0;
+        rawCount = 0;
+    }
+
+    public int size() { return count; }
+    public float getX(int i) { return coords[i * 2]; }
+    public float getY(int i) { return coords[i * 2 + 1]; }
+}
@@ -0,0 +1,41 @@
+package inkball;
+
+/**
+ * Spreads events at a fixed rate over simulation ticks, for any pair of rates.
+ * The ratio is kept as an exact fraction, so over a second exactly eventsPerSecond
+ * events are due whatever the tick rate, with no drift and no integer rounding.
+ */
+public class RateDivider {
+    private final int eventsPerSecond;
+    private final int ticksPerSecond;
+    /** Event credit carried between ticks, in units of 1 / ticksPerSecond events */
+    private int credit;
+
+    /**
+     * @param eventsPerSecond Events wanted per second of game time
+     * @param ticksPerSecond Simulation ticks per second of game time
+     */
+    public RateDivider(int eventsPerSecond, int ticksPerSecond) {
+        if (eventsPerSecond < 0 || ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid rates " + eventsPerSecond + "/" + ticksPerSecond);
+        }
+        this.eventsPerSecond = eventsPerSecond;
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    /**
+     * Advances one tick
+     * @return Events due on this tick; more than one when events outpace ticks
+     */
+    public int tick() {
+        credit += eventsPerSecond;
+        int due = credit / ticksPerSecond;
+        credit -= due * ticksPerSecond;
+        return due;
+    }
+
+    /** Drops any partial credit, so the next event is a full interval away */
+    public void reset() {
+        credit = 0;
+    }
+}
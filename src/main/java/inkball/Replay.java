@@ -0,0 +1,42 @@
+package inkball;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command line entry point that re-runs a recorded session headlessly at full speed
+ * and checks it ends in the same state.
+ * Usage: Replay [config.json|levels.bin] [session.journal] [parallel] [swept] [profile]
+ */
+public class Replay {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: Replay <config.json|levels.bin> <session.journal> [parallel] [swept] [profile]");
+            return;
+        }
+        InputJournal journal = InputJournal.read(Paths.get(args[1]));
+        GameEngine engine = GameEngine.fromPath(args[0]);
+        List<String> options = Arrays.asList(args).subList(2, args.length);
+        engine.setParallel(options.contains("parallel"));
+        engine.setSweptCollisions(options.contains("swept"));
+        engine.getProfiler().setEnabled(options.contains("profile"));
+
+        long start = System.nanoTime();
+        long checksum = journal.replay(engine);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Ticks: " + engine.getTick());
+        System.out.println("Ticks per second: " + (long) (engine.getTick() / Math.max(seconds, 1e-9)));
+        System.out.println("Level: " + (engine.getCurrentLevelIndex() + 1));
+        System.out.println("Score: " + engine.getScore());
+        System.out.println(checksum == journal.getEndChecksum()
+                ? "End state matches the recording"
+                : "End state differs from the recording");
+        if (engine.getProfiler().isEnabled()) {
+            System.out.print(engine.getProfiler().summary());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package inkball;
+
+/**
+ * Plain loops; the reference every other BallKernel is checked against.
+ */
+final class ScalarBallKernel implements BallKernel {
+
+    @Override
+    public void integrate(float[] x, float[] y, float[] vx, float[] vy, int from, int to) {
+        for (int i = from; i < to; i++) {
+            x[i] += vx[i];
+            y[i] += vy[i];
+        }
+    }
+
+    @Override
+    public void reflectOffBounds(float[] x, float[] y, float[] vx, float[] vy, float[] radius, int from, int to,
+                                 float minX, float minY, float maxX, float maxY) {
+        for (int i = from; i < to; i++) {
+            float r = radius[i];
+            if (x[i] - r < minX || x[i] + r > maxX) {
+                vx[i] = -vx[i];
+            }
+            if (y[i] - r < minY || y[i] + r > maxY) {
+                vy[i] = -vy[i];
+            }
+        }
+    }
+
+    @Override
+    public void findHoles(float[] x, float[] y, int from, int to,
+                          float[] holeX, float[] holeY, int holes, float rangeSquared, int[] result) {
+        for (int i = from; i < to; i++) {
+            result[i] = -1;
+            for (int hole = 0; hole < holes; hole++) {
+                float dx = holeX[hole] - x[i];
+                float dy = holeY[hole] - y[i];
+                if (dx * dx + dy * dy <= rangeSquared) {
+                    result[i] = hole;
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package inkball;
+
+import java.util.ArrayList;
+
+/**
+ * Uniform grid over the level's world area holding every segment of every placed line.
+ * A segment is registered in each cell its bounding box overlaps, so a ball or the mouse
+ * only tests segments in the few cells around it.
+ */
+public class SegmentGrid {
+    /**
+     * Reference to one segment of a line. Lines own and reuse their segments;
+     * the line's serial preserves the order lines were added.
+     */
+    static class Segment {
+        final Line line;
+        final int index;
+
+        Segment(Line line, int index) {
+            this.line = line;
+            this.index = index;
+        }
+    }
+
+    private final int cellSize;
+    private final int rows;
+    private final int cols;
+    private final ArrayList<Segment>[] cells;
+    private int nextSerial = 0;
+
+    /**
+     * Creates an empty grid covering the given area
+     * @param width Area width in pixels
+     * @param height Area height in pixels
+     * @param cellSize Cell edge length in pixels
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SegmentGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.cols = (width + cellSize - 1) / cellSize;
+        this.rows = (height + cellSize - 1) / cellSize;
+        this.cells = new ArrayList[rows * cols];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Registers every segment of a line
+     * @param line Line to index
+     */
+    public void add(Line line) {
+        line.serial = nextSerial++;
+        for (int i = 0; i < line.getPointCount() - 1; i++) {
+            Segment segment = line.getSegment(i);
+            int minCol = col(Math.min(line.getX(i), line.getX(i + 1)));
+            int maxCol = col(Math.max(line.getX(i), line.getX(i + 1)));
+            int minRow = row(Math.min(line.getY(i), line.getY(i + 1)));
+            int maxRow = row(Math.max(line.getY(i), line.getY(i + 1)));
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minCol; c <= maxCol; c++) {
+                    cells[r * cols + c].add(segment);
+                }
+            }
+        }
+    }
+
+    /**
+     * Unregisters every segment of a line
+     * @param line Line to remove
+     */
+    public void remove(Line line) {
+        line.serial = Line.NOT_PLACED;
+        if (line.getPointCount() == 0) return;
+
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < line.getPointCount(); i++) {
+            minX = Math.min(minX, line.getX(i));
+            minY = Math.min(minY, line.getY(i));
+            maxX = Math.max(maxX, line.getX(i));
+            maxY = Math.max(maxY, line.getY(i));
+        }
+        for (int r = row(minY); r <= row(maxY); r++) {
+            for (int c = col(minX); c <= col(maxX); c++) {
+                ArrayList<Segment> cell = cells[r * cols + c];
+                for (int i = cell.size() - 1; i >= 0; i--) {
+                    if (cell.get(i).line == line) {
+                        cell.remove(i);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Removes every segment */
+    public void clear() {
+        for (ArrayList<Segment> cell : cells) {
+            for (int i = 0; i < cell.size(); i++) {
+                cell.get(i).line.serial = Line.NOT_PLACED;
+            }
+            cell.clear();
+        }
+    }
+
+    /**
+     * Reflects a ball off the most recently added line it will touch after its next move.
+     * Within that line the first touching segment decides the reflection, matching Line.handleCollision.
+     * @param balls Store holding the ball
+     * @param ball Index of the ball
+     * @return The line that was hit, or null if none
+     */
+    public Line handleCollision(BallStore balls, int ball) {
+        return applyCollision(findCollision(balls, ball), balls, ball);
+    }
+
+    /**
+     * Finds the segment a ball would reflect off without changing anything.
+     * Safe to call from several threads while no lines are added or removed.
+     * @return The segment, or null if none
+     */
+    Segment findCollision(BallStore balls, int ball) {
+        float nextX = balls.getX(ball) + balls.getVx(ball);
+        float nextY = balls.getY(ball) + balls.getVy(ball);
+        float radius = balls.getRadius(ball);
+        float reach = radius + Line.HALF_THICKNESS;
+
+        Segment best = null;
+        for (int r = row(nextY - reach); r <= row(nextY + reach); r++) {
+            for (int c = col(nextX - reach); c <= col(nextX + reach); c++) {
+                ArrayList<Segment> cell = cells[r * cols + c];
+                for (int i = 0; i < cell.size(); i++) {
+                    Segment segment = cell.get(i);
+                    if (isBetterHit(segment, best)
+                            && segment.line.ballNearSegment(segment.index, nextX, nextY, radius)) {
+                        best = segment;
+                    }
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Finds the segment a moving ball would touch first along its motion.
+     * Ties go to the later line, then the lower segment index, as in findCollision.
+     * Safe to call from several threads while no lines are added or removed.
+     * @param px Start x-coordinate of the ball centre
+     * @param py Start y-coordinate of the ball centre
+     * @param mx Horizontal motion over the step
+     * @param my Vertical motion over the step
+     * @param radius Ball radius
+     * @return The segment, or null if the ball touches none
+     */
+    Segment findSweptCollision(float px, float py, float mx, float my, float radius) {
+        float reach = radius + Line.HALF_THICKNESS;
+        Segment best = null;
+        float bestTime = SweptCollision.NO_HIT;
+        for (int r = row(Math.min(py, py + my) - reach); r <= row(Math.max(py, py + my) + reach); r++) {
+            for (int c = col(Math.min(px, px + mx) - reach); c <= col(Math.max(px, px + mx) + reach); c++) {
+                ArrayList<Segment> cell = cells[r * cols + c];
+                for (int i = 0; i < cell.size(); i++) {
+                    Segment segment = cell.get(i);
+                    float time = segment.line.sweptTime(segment.index, px, py, mx, my, radius);
+                    if (time < bestTime || (time == bestTime && time != SweptCollision.NO_HIT && isBetterHit(segment, best))) {
+                        best = segment;
+                        bestTime = time;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Reflects a ball off a segment found by findCollision
+     * @return The segment's line, or null if there was no segment
+     */
+    Line applyCollision(Segment segment, BallStore balls, int ball) {
+        if (segment == null) {
+            return null;
+        }
+        segment.line.reflect(segment.index, balls, ball);
+        return segment.line;
+    }
+
+    /**
+     * @param line Line to look for
+     * @return true if the line is currently indexed
+     */
+    public boolean contains(Line line) {
+        return line.serial != Line.NOT_PLACED;
+    }
+
+    /** Later lines win; within a line the lowest segment index wins */
+    private static boolean isBetterHit(Segment candidate, Segment best) {
+        if (best == null) return true;
+        if (candidate.line.serial != best.line.serial) return candidate.line.serial > best.line.serial;
+        return candidate.index < best.index;
+    }
+
+    /**
+     * Finds the earliest added line passing within half its thickness of a point
+     * @param x Screen x-coordinate
+     * @param y Screen y-coordinate
+     * @return The line, or null if none is near
+     */
+    public Line findLineNear(float x, float y) {
+        Segment best = null;
+        float reach = Line.HALF_THICKNESS;
+        for (int r = row(y - reach); r <= row(y + reach); r++) {
+            for (int c = col(x - reach); c <= col(x + reach); c++) {
+                ArrayList<Segment> cell = cells[r * cols + c];
+                for (int i = 0; i < cell.size(); i++) {
+                    Segment segment = cell.get(i);
+                    if ((best == null || segment.line.serial < best.line.serial)
+                            && segment.line.pointNearSegment(segment.index, x, y)) {
+                        best = segment;
+                    }
+                }
+            }
+        }
+        return best == null ? null : best.line;
+    }
+
+    private int col(float x) {
+        return Math.max(0, Math.min(cols - 1, (int) Math.floor(x / cellSize)));
+    }
+
+    private int row(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+    }
+}
@@ -0,0 +1,36 @@
+package inkball;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command line entry point that plays a configuration headlessly, without opening a window.
+ * Usage: Simulation [config.json|levels.bin] [maxTicks] [parallel] [swept] [profile]
+ */
+public class Simulation {
+
+    public static void main(String[] args) throws IOException {
+        String configPath = args.length > 0 ? args[0] : "config.json";
+        int maxTicks = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        GameEngine engine = GameEngine.fromPath(configPath);
+        List<String> options = Arrays.asList(args).subList(Math.min(args.length, 2), args.length);
+        engine.setParallel(options.contains("parallel"));
+        engine.setSweptCollisions(options.contains("swept"));
+        engine.getProfiler().setEnabled(options.contains("profile"));
+        engine.start();
+
+        long start = System.nanoTime();
+        int ticks = engine.run(maxTicks);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Ticks: " + ticks);
+        System.out.println("Ticks per second: " + (long) (ticks / Math.max(seconds, 1e-9)));
+        System.out.println("Level: " + (engine.getCurrentLevelIndex() + 1));
+        System.out.println("Score: " + engine.getScore());
+        if (engine.getProfiler().isEnabled()) {
+            System.out.print(engine.getProfiler().summary());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package inkball;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Steps a GameEngine on its own thread on a fixed timestep of its tick rate, publishing
+ * a snapshot after each batch of ticks. Rendering reads snapshots from the buffer and talks
+ * to the engine only through its input queue, so ticks and frames overlap on multi-core
+ * machines and the tick rate does not depend on the frame rate.
+ */
+public class SimulationThread {
+    /** Most ticks run back to back to catch up after a stall */
+    static final int MAX_TICKS_PER_WAKE = 5;
+
+    private final GameEngine engine;
+    private final SnapshotBuffer snapshots;
+    private final FixedTimestep clock;
+    private final Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @param engine Started engine; from now on only this thread may step it
+     * @param snapshots Buffer to publish to
+     */
+    public SimulationThread(GameEngine engine, SnapshotBuffer snapshots) {
+        this.engine = engine;
+        this.snapshots = snapshots;
+        this.clock = new FixedTimestep(engine.getTicksPerSecond(), MAX_TICKS_PER_WAKE);
+        this.thread = new Thread(this::run, "inkball-simulation");
+        this.thread.setDaemon(true);
+    }
+
+    /** Publishes the engine's current state, then starts ticking */
+    public void start() {
+        snapshots.publish(engine, System.nanoTime());
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops ticking and waits for the current tick to finish.
+     * Afterwards the engine may be used from the calling thread again.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        FrameProfiler profiler = engine.getProfiler();
+        clock.advance(System.nanoTime());
+        while (running) {
+            // parkNanos may return early, so the clock decides whether a tick is actually due
+            LockSupport.parkNanos(clock.getNanosUntilNextStep());
+            int ticks = clock.advance(System.nanoTime());
+            for (int i = 0; i < ticks; i++) {
+                profiler.beginFrame();
+                engine.tick();
+                profiler.endFrame();
+            }
+            if (ticks > 0) {
+                snapshots.publish(engine, clock.getStepTime());
+            }
+        }
+    }
+
+    /** @return Ticks skipped so far because the simulation fell more than MAX_TICKS_PER_WAKE behind */
+    public long getDroppedTicks() {
+        return clock.getDroppedSteps();
+    }
+}
@@ -0,0 +1,51 @@
+package inkball;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple buffer of frame snapshots between the simulation thread and the renderer.
+ * The simulation always has a buffer to write and the renderer always has one to read,
+ * and the third is swapped between them atomically, so neither ever waits for the other.
+ * The renderer gets the newest published snapshot; snapshots it never saw are skipped.
+ */
+public class SnapshotBuffer {
+    /** Set on the shared index while it holds a snapshot the renderer has not taken */
+    private static final int FRESH = 4;
+
+    private final FrameSnapshot[] snapshots = {new FrameSnapshot(), new FrameSnapshot(), new FrameSnapshot()};
+    private final AtomicInteger shared = new AtomicInteger(1);
+    private int back = 0; // written by the simulation thread only
+    private int front = 2; // read by the render thread only
+
+    /**
+     * Copies the engine's state into the back buffer and makes it the newest snapshot.
+     * Must be called from the thread stepping the engine.
+     * @param engine Engine to copy
+     */
+    public void publish(GameEngine engine) {
+        publish(engine, System.nanoTime());
+    }
+
+    /**
+     * Copies the engine's state into the back buffer and makes it the newest snapshot.
+     * Must be called from the thread stepping the engine.
+     * @param engine Engine to copy
+     * @param tickTime When the engine's last tick was due, on the System.nanoTime() clock
+     */
+    public void publish(GameEngine engine, long tickTime) {
+        snapshots[back].capture(engine, tickTime);
+        back = shared.getAndSet(back | FRESH) & ~FRESH;
+    }
+
+    /**
+     * Takes the newest snapshot. It stays unchanged until the next call.
+     * Must be called from the render thread.
+     * @return The newest snapshot, or the previous one again if nothing new was published
+     */
+    public FrameSnapshot acquire() {
+        if ((shared.get() & FRESH) != 0) {
+            front = shared.getAndSet(front) & ~FRESH;
+        }
+        return snapshots[front];
+    }
+}
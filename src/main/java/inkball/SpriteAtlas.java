@@ -0,0 +1,43 @@
+package inkball;
+
+import processing.core.PApplet;
+import processing.core.PImage;
+
+/**
+ * Holds every game sprite, sliced once from the shared spritesheet.
+ * Sprites are looked up by SpriteId with a single array read.
+ */
+public class SpriteAtlas {
+    private static final String SHEET = "/inkball/inkball_spritesheet.png";
+
+    private final PImage[] sprites = new PImage[SpriteId.values().length];
+
+    /**
+     * Slices the sheet into one image per sprite
+     * @param sheet Loaded spritesheet
+     */
+    public SpriteAtlas(PImage sheet) {
+        for (SpriteId id : SpriteId.values()) {
+            sprites[id.ordinal()] = sheet.get(id.x, id.y, id.width, id.height);
+        }
+    }
+
+    /**
+     * Loads the spritesheet from the classpath through the sketch
+     * @param app Sketch used to decode the image
+     * @return The atlas, or null if the sheet is missing
+     */
+    public static SpriteAtlas load(PApplet app) {
+        try {
+            String path = SpriteAtlas.class.getResource(SHEET).getPath().replace("%20", " ");
+            return new SpriteAtlas(app.loadImage(path));
+        } catch (NullPointerException e) {
+            System.out.println("The file " + SHEET + " is missing or inaccessible");
+            return null;
+        }
+    }
+
+    public PImage get(SpriteId id) {
+        return sprites[id.ordinal()];
+    }
+}
@@ -0,0 +1,45 @@
+package inkball;
+
+/**
+ * Identifies a sprite and its rectangle in inkball_spritesheet.png.
+ * Game objects hold these directly so rendering is an array read instead of a name lookup.
+ */
+public enum SpriteId {
+    TILE(1, 1, 32, 32),
+    ENTRYPOINT(1, 34, 32, 32),
+    WALL0(99, 1, 32, 32),
+    WALL1(99, 34, 32, 32),
+    WALL2(99, 67, 32, 32),
+    WALL3(99, 100, 32, 32),
+    WALL4(99, 133, 32, 32),
+    HOLE0(34, 1, 64, 64),
+    HOLE1(34, 66, 64, 64),
+    HOLE2(34, 131, 64, 64),
+    HOLE3(34, 196, 64, 64),
+    HOLE4(34, 261, 64, 64),
+    BALL0(1, 157, 24, 24),
+    BALL1(1, 181, 24, 24),
+    BALL2(1, 205, 24, 24),
+    BALL3(1, 229, 24, 24),
+    BALL4(1, 253, 24, 24);
+
+    private static final SpriteId[] WALLS = {WALL0, WALL1, WALL2, WALL3, WALL4};
+    private static final SpriteId[] HOLES = {HOLE0, HOLE1, HOLE2, HOLE3, HOLE4};
+    private static final SpriteId[] BALLS = {BALL0, BALL1, BALL2, BALL3, BALL4};
+
+    final int x, y, width, height;
+
+    SpriteId(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /** @return Wall sprite for a colour number, 0 (grey) to 4 */
+    public static SpriteId wall(int colour) { return WALLS[colour]; }
+    /** @return Hole sprite for a colour number, 0 (grey) to 4 */
+    public static SpriteId hole(int colour) { return HOLES[colour]; }
+    /** @return Ball sprite for a colour number, 0 (grey) to 4 */
+    public static SpriteId ball(int colour) { return BALLS[colour]; }
+}
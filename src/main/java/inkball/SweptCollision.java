@@ -0,0 +1,120 @@
+package inkball;
+
+/**
+ * Time of impact for a circle moving in a straight line. Every test takes the circle's
+ * start centre (px, py), its motion (mx, my) over the step and its radius, and returns the
+ * fraction of the motion in [0, 1] at which the circle first touches the shape.
+ * A circle already touching a shape only collides if it is moving further into it.
+ */
+final class SweptCollision {
+    static final float NO_HIT = Float.POSITIVE_INFINITY;
+
+    private SweptCollision() {
+    }
+
+    /**
+     * Circle against an axis-aligned box, with rounded corners as a real circle sees them
+     */
+    static float circleBox(float px, float py, float mx, float my, float r,
+                           float minX, float minY, float maxX, float maxY) {
+        float dx = px - clamp(px, minX, maxX);
+        float dy = py - clamp(py, minY, maxY);
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared <= r * r) {
+            // A centre inside the box has no meaningful normal; leave it to escape on its own
+            return distanceSquared > 0 && mx * dx + my * dy < 0 ? 0 : NO_HIT;
+        }
+
+        // Slab test against the box grown by the radius
+        float enter = 0, exit = 1;
+        if (mx == 0) {
+            if (px < minX - r || px > maxX + r) return NO_HIT;
+        } else {
+            float t1 = (minX - r - px) / mx;
+            float t2 = (maxX + r - px) / mx;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        if (my == 0) {
+            if (py < minY - r || py > maxY + r) return NO_HIT;
+        } else {
+            float t1 = (minY - r - py) / my;
+            float t2 = (maxY + r - py) / my;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        if (enter > exit) return NO_HIT;
+
+        // Entering through a corner square of the grown box: only the rounded corner counts
+        float hx = px + mx * enter;
+        float hy = py + my * enter;
+        boolean outsideX = hx < minX || hx > maxX;
+        boolean outsideY = hy < minY || hy > maxY;
+        if (outsideX && outsideY) {
+            return circlePoint(px, py, mx, my, r, hx < minX ? minX : maxX, hy < minY ? minY : maxY);
+        }
+        return enter;
+    }
+
+    /**
+     * Circle against a segment with thickness, i.e. a capsule of radius r + halfThickness
+     */
+    static float circleCapsule(float px, float py, float mx, float my, float r,
+                               float ax, float ay, float bx, float by, float halfThickness) {
+        float reach = r + halfThickness;
+        float sx = bx - ax;
+        float sy = by - ay;
+        float lengthSquared = sx * sx + sy * sy;
+        if (lengthSquared == 0) {
+            return circlePoint(px, py, mx, my, reach, ax, ay);
+        }
+
+        float u = clamp(((px - ax) * sx + (py - ay) * sy) / lengthSquared, 0, 1);
+        float dx = px - (ax + u * sx);
+        float dy = py - (ay + u * sy);
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared <= reach * reach) {
+            return distanceSquared > 0 && mx * dx + my * dy < 0 ? 0 : NO_HIT;
+        }
+
+        // Flat sides: signed distance from the segment's line changes linearly with t
+        float best = NO_HIT;
+        float length = (float) Math.sqrt(lengthSquared);
+        float side = (sx * (py - ay) - sy * (px - ax)) / length;
+        float sideRate = (sx * my - sy * mx) / length;
+        if (Math.abs(side) > reach && side * sideRate < 0) {
+            float t = (Math.signum(side) * reach - side) / sideRate;
+            float hx = px + mx * t;
+            float hy = py + my * t;
+            float along = ((hx - ax) * sx + (hy - ay) * sy) / lengthSquared;
+            if (t <= 1 && along >= 0 && along <= 1) {
+                best = t;
+            }
+        }
+
+        // Rounded ends
+        best = Math.min(best, circlePoint(px, py, mx, my, reach, ax, ay));
+        best = Math.min(best, circlePoint(px, py, mx, my, reach, bx, by));
+        return best;
+    }
+
+    /**
+     * Circle against a point, equivalently a ray against a circle of radius r
+     */
+    static float circlePoint(float px, float py, float mx, float my, float r, float cx, float cy) {
+        float ox = px - cx;
+        float oy = py - cy;
+        float a = mx * mx + my * my;
+        float b = mx * ox + my * oy;
+        float c = ox * ox + oy * oy - r * r;
+        float discriminant = b * b - a * c;
+        if (a == 0 || discriminant < 0) return NO_HIT;
+
+        float t = (-b - (float) Math.sqrt(discriminant)) / a;
+        return t >= 0 && t <= 1 ? t : NO_HIT;
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
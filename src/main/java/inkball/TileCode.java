@@ -0,0 +1,36 @@
+package inkball;
+
+/**
+ * Byte codes for board cells. Walls and holes occupy a run of five codes, one per colour.
+ */
+public final class TileCode {
+    public static final byte TILE = 0;
+    public static final byte ENTRYPOINT = 1;
+    public static final byte WALL0 = 2;
+    public static final byte HOLE0 = 7;
+    private static final byte COLOURS = 5;
+
+    private static final String[] NAMES = {
+            "tile", "entrypoint",
+            "wall0", "wall1", "wall2", "wall3", "wall4",
+            "hole0", "hole1", "hole2", "hole3", "hole4"
+    };
+
+    private TileCode() {
+    }
+
+    public static byte wall(int colour) { return (byte) (WALL0 + colour); }
+    public static byte hole(int colour) { return (byte) (HOLE0 + colour); }
+    public static boolean isWall(byte code) { return code >= WALL0 && code < WALL0 + COLOURS; }
+    public static boolean isHole(byte code) { return code >= HOLE0 && code < HOLE0 + COLOURS; }
+
+    /** @return Colour number of a wall or hole code */
+    public static int colour(byte code) {
+        return isHole(code) ? code - HOLE0 : code - WALL0;
+    }
+
+    /** @return Sprite name of the cell, e.g. "wall3" */
+    public static String name(byte code) {
+        return NAMES[code];
+    }
+}
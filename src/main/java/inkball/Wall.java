@@ -1,5 +1,6 @@
 package inkball;
 
+import processing.core.PGraphics;
 import processing.core.PImage;
 /**
  * Represents a wall element in the game that can interact with balls and affect gameplay.
@@ -8,6 +9,8 @@ import processing.core.PImage;
 public class Wall implements Draw {
     private final Position position;
     private final String type;
+    private final int colourNumber;
+    private final SpriteId spriteId;
     private final PImage sprite;
 
     /**
@@ -50,6 +53,8 @@ public class Wall implements Draw {
     public Wall(int x, int y, String type, PImage sprite) {
         this.position = new Position(x, y);
         this.type = type;
+        this.colourNumber = Integer.parseInt(type.substring(4));
+        this.spriteId = SpriteId.wall(colourNumber);
         this.sprite = sprite;
     }
     /**
@@ -61,9 +66,20 @@ public class Wall implements Draw {
                 App.CELLSIZE, App.CELLSIZE);
     }
 
+    /**
+     * Renders the wall into an offscreen layer
+     * @param graphics Layer to draw into
+     */
+    public void draw(PGraphics graphics) {
+        graphics.image(sprite, position.getScreenX(), position.getScreenY(),
+                App.CELLSIZE, App.CELLSIZE);
+    }
+
     public int getX() { return position.x; }
     public int getY() { return position.y; }
     public String getType() { return type; }
+    public int getColourNumber() { return colourNumber; }
+    public SpriteId getSpriteId() { return spriteId; }
 }
 
 
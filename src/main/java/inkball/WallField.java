@@ -0,0 +1,146 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * Signed distance from every point of the board to the nearest wall, sampled on a grid
+ * finer than the board cells and rebuilt once per level.
+ * Each sample also holds the outward normal of that wall's surface and the wall's colour,
+ * so a ball's wall collision is one lookup at its centre whatever the number of walls.
+ * Walls are treated as solid squares: near a corner the normal points away from the
+ * corner, and along a run of walls it stays square to the run across the seams.
+ */
+public class WallField {
+    /** Samples per cell along each axis */
+    static final int SUBDIVISIONS = 8;
+    /** Distance between neighbouring samples in pixels */
+    static final float SPACING = (float) App.CELLSIZE / SUBDIVISIONS;
+    /** Distances are only exact up to here; farther samples hold this value and no wall */
+    static final float MAX_DISTANCE = App.CELLSIZE;
+    /** Colour of samples with no wall within MAX_DISTANCE */
+    static final int NO_WALL = -1;
+
+    private final int rows;
+    private final int cols;
+    /** Samples per row, on the cell corners and every SPACING between them */
+    private final int width;
+    private final int height;
+    private final float[] distance;
+    private final float[] normalX;
+    private final float[] normalY;
+    private final byte[] colour;
+
+    /**
+     * Creates a field with no walls over the board
+     * @param rows Number of board rows
+     * @param cols Number of board columns
+     */
+    public WallField(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.width = cols * SUBDIVISIONS + 1;
+        this.height = rows * SUBDIVISIONS + 1;
+        int samples = width * height;
+        distance = new float[samples];
+        normalX = new float[samples];
+        normalY = new float[samples];
+        colour = new byte[samples];
+        clear();
+    }
+
+    /** Removes every wall from the field */
+    public void clear() {
+        Arrays.fill(distance, MAX_DISTANCE);
+        Arrays.fill(normalX, 0);
+        Arrays.fill(normalY, 0);
+        Arrays.fill(colour, (byte) NO_WALL);
+    }
+
+    /**
+     * Recomputes the field for the walls of a level. Each wall only updates the samples
+     * within MAX_DISTANCE of it, so building is linear in the number of walls.
+     * @param walls Walls of the level, on a grid of the same size as this field
+     */
+    public void build(WallGrid walls) {
+        clear();
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                Wall wall = walls.get(col, row);
+                if (wall != null) {
+                    addWall(col, row, wall.getColourNumber());
+                }
+            }
+        }
+    }
+
+    /** Keeps, for every sample near the wall, whichever of it and the current nearest wall is closer */
+    private void addWall(int col, int row, int wallColour) {
+        float half = App.CELLSIZE / 2f;
+        float centreX = col * App.CELLSIZE + half;
+        float centreY = row * App.CELLSIZE + half;
+        int reach = (int) Math.ceil((half + MAX_DISTANCE) / SPACING);
+        int centreSampleX = col * SUBDIVISIONS + SUBDIVISIONS / 2;
+        int centreSampleY = row * SUBDIVISIONS + SUBDIVISIONS / 2;
+
+        for (int sy = Math.max(0, centreSampleY - reach); sy <= Math.min(height - 1, centreSampleY + reach); sy++) {
+            for (int sx = Math.max(0, centreSampleX - reach); sx <= Math.min(width - 1, centreSampleX + reach); sx++) {
+                float dx = sx * SPACING - centreX;
+                float dy = sy * SPACING - centreY;
+                // Offsets past each face; positive on the outside of that face
+                float qx = Math.abs(dx) - half;
+                float qy = Math.abs(dy) - half;
+
+                float d, nx, ny;
+                if (qx > 0 || qy > 0) {
+                    float ox = Math.max(qx, 0);
+                    float oy = Math.max(qy, 0);
+                    d = (float) Math.sqrt(ox * ox + oy * oy);
+                    nx = Math.copySign(ox / d, dx);
+                    ny = Math.copySign(oy / d, dy);
+                } else if (qx >= qy) {
+                    d = qx;
+                    nx = dx < 0 ? -1 : 1;
+                    ny = 0;
+                } else {
+                    d = qy;
+                    nx = 0;
+                    ny = dy < 0 ? -1 : 1;
+                }
+
+                int sample = sy * width + sx;
+                if (d < distance[sample]) {
+                    distance[sample] = d;
+                    normalX[sample] = nx;
+                    normalY[sample] = ny;
+                    colour[sample] = (byte) wallColour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the sample nearest a point
+     * @param x Screen x-coordinate
+     * @param y Screen y-coordinate
+     * @return Index of the sample, or -1 if the point is off the board
+     */
+    public int sample(float x, float y) {
+        int sx = (int) Math.floor(x / SPACING + 0.5f);
+        int sy = (int) Math.floor((y - App.TOPBAR) / SPACING + 0.5f);
+        if (sx < 0 || sx >= width || sy < 0 || sy >= height) {
+            return -1;
+        }
+        return sy * width + sx;
+    }
+
+    /** @return Distance from the sample to the nearest wall surface, negative inside a wall, at most MAX_DISTANCE */
+    public float getDistance(int sample) { return distance[sample]; }
+    /** @return X component of the unit normal of the nearest wall surface, 0 if there is no wall in range */
+    public float getNormalX(int sample) { return normalX[sample]; }
+    /** @return Y component of the unit normal of the nearest wall surface, 0 if there is no wall in range */
+    public float getNormalY(int sample) { return normalY[sample]; }
+    /** @return Colour of the nearest wall, or NO_WALL */
+    public int getColour(int sample) { return colour[sample]; }
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+}
@@ -0,0 +1,55 @@
+package inkball;
+
+/**
+ * Uniform grid index of walls keyed by board cell.
+ * Lets a ball test only the cells around it instead of every wall on the board.
+ */
+public class WallGrid {
+    private final int rows;
+    private final int cols;
+    /** Wall occupying each cell in row-major order, or null for an open cell */
+    private final Wall[] cells;
+
+    /**
+     * Creates an empty grid matching the board dimensions
+     * @param rows Number of board rows
+     * @param cols Number of board columns
+     */
+    public WallGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new Wall[rows * cols];
+    }
+
+    /** Removes every wall from the grid */
+    public void clear() {
+        java.util.Arrays.fill(cells, null);
+    }
+
+    /**
+     * Registers a wall in the cell it occupies. Walls outside the board are ignored.
+     * @param wall Wall to index
+     */
+    public void add(Wall wall) {
+        if (inBounds(wall.getX(), wall.getY())) {
+            cells[wall.getY() * cols + wall.getX()] = wall;
+        }
+    }
+
+    /**
+     * Returns the wall at the given cell
+     * @param col Grid x-coordinate
+     * @param row Grid y-coordinate
+     * @return Wall in the cell, or null if the cell is open or off the board
+     */
+    public Wall get(int col, int row) {
+        return inBounds(col, row) ? cells[row * cols + col] : null;
+    }
+
+    private boolean inBounds(int col, int row) {
+        return col >= 0 && col < cols && row >= 0 && row < rows;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+}
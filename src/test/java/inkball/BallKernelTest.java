@@ -0,0 +1,45 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class BallKernelTest {
+
+    /** Verifies the vector kernel matches the scalar one bit for bit and is the one balls use */
+    @Test
+    void testVectorKernelMatchesScalar() {
+        assertTrue(BallKernels.matchesScalar(BallKernels.SCALAR, 1));
+        BallKernel vector = BallKernels.vector();
+        assumeTrue(vector != null, "jdk.incubator.vector or VectorBallKernel is not on this run");
+        assertEquals("inkball.VectorBallKernel", vector.getClass().getName());
+        for (long seed = 0; seed < 20; seed++) {
+            assertTrue(BallKernels.matchesScalar(vector, seed), "seed " + seed);
+        }
+        if (System.getProperty("inkball.kernel") == null) {
+            assertSame(vector.getClass(), BallKernels.preferred().getClass());
+        }
+    }
+
+    /** Checks scanning every hole finds the same hole as the registry's cell lookup */
+    @Test
+    void testHoleScanMatchesCellLookup() {
+        HoleRegistry holes = new HoleRegistry(18, 18);
+        holes.add(100, 200, 1);
+        holes.add(130, 210, 2);
+        holes.add(400, 500, 0);
+        BallStore balls = new BallStore(4);
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            balls.add(random.nextFloat() * App.WIDTH, App.TOPBAR + random.nextFloat() * 576, 0, 0, 0);
+        }
+
+        int[] found = new int[balls.size()];
+        balls.findHoles(holes, 0, balls.size(), found);
+        for (int i = 0; i < balls.size(); i++) {
+            assertEquals(holes.findInRange(balls.getX(i), balls.getY(i)), found[i]);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BallStoreTest {
+    /** Confirms every ball moves by its own velocity */
+    @Test
+    void testIntegrate() {
+        BallStore balls = new BallStore(1);
+        balls.add(100, 200, 2, -3, 1);
+        balls.add(300, 400, -1, 1, 2);
+        balls.integrate();
+        assertEquals(102, balls.getX(0));
+        assertEquals(197, balls.getY(0));
+        assertEquals(299, balls.getX(1));
+        assertEquals(401, balls.getY(1));
+    }
+
+    /** Checks a new ball is stored centred where given, at full size and with no previous motion */
+    @Test
+    void testAddStoresBall() {
+        BallStore balls = new BallStore(1);
+        int i = balls.add(26, 36, 2, 2, 3);
+        assertEquals(26, balls.getX(i));
+        assertEquals(36, balls.getY(i));
+        assertEquals(26, balls.getPreviousX(i));
+        assertEquals(2, balls.getVy(i));
+        assertEquals(App.CELLSIZE / 2, balls.getRadius(i));
+        assertEquals(3, balls.getColour(i));
+    }
+
+    /** Verifies balls reaching past the screen edges bounce back with no walls about */
+    @Test
+    void testScreenBoundaryCollision() {
+        BallStore balls = new BallStore(2);
+        balls.add(App.WIDTH - App.CELLSIZE / 2f + 1, 100, 2, 0, 1);
+        balls.add(100, App.TOPBAR + App.CELLSIZE / 2f - 1, 0, -2, 1);
+        balls.checkCollisions(new WallField(18, 18));
+        assertEquals(-2, balls.getVx(0));
+        assertEquals(2, balls.getVy(1));
+    }
+
+    /** Verifies removal moves the last ball into the freed slot */
+    @Test
+    void testSwapRemove() {
+        BallStore balls = new BallStore(4);
+        balls.add(10, 100, 0, 0, 1);
+        balls.add(20, 100, 0, 0, 2);
+        balls.add(30, 100, 0, 0, 3);
+        balls.remove(0);
+        assertEquals(2, balls.size());
+        assertEquals(30, balls.getX(0));
+        assertEquals(3, balls.getColour(0));
+        assertEquals(20, balls.getX(1));
+    }
+
+    /** Tests bouncing and recolouring off a neighbouring wall */
+    @Test
+    void testWallCollisionRecolours() {
+        WallGrid grid = new WallGrid(18, 18);
+        grid.add(new Wall(3, 3, "wall2", null));
+        WallField field = new WallField(18, 18);
+        field.build(grid);
+        BallStore balls = new BallStore(1);
+        balls.add(2 * App.CELLSIZE + App.CELLSIZE / 2, 3 * App.CELLSIZE + App.CELLSIZE / 2 + App.TOPBAR, 2, 0, 1);
+        balls.checkCollisions(field);
+        assertEquals(-2, balls.getVx(0));
+        assertEquals(2, balls.getColour(0));
+    }
+
+    /** Confirms grey walls bounce balls without changing their colour */
+    @Test
+    void testGreyWallKeepsColour() {
+        WallGrid grid = new WallGrid(18, 18);
+        grid.add(new Wall(3, 3, "wall0", null));
+        WallField field = new WallField(18, 18);
+        field.build(grid);
+        BallStore balls = new BallStore(1);
+        balls.add(2 * App.CELLSIZE + App.CELLSIZE / 2, 3 * App.CELLSIZE + App.CELLSIZE / 2 + App.TOPBAR, 2, 0, 1);
+        balls.checkCollisions(field);
+        assertEquals(1, balls.getColour(0));
+    }
+
+    /** Verifies hole capture results and per-ball shrinking */
+    @Test
+    void testHoleCapture() {
+        HoleRegistry holes = new HoleRegistry(18, 18);
+        holes.add(200, 200, 1);
+        BallStore balls = new BallStore(2);
+        balls.add(205, 200, 0, 0, 1);
+        balls.add(195, 200, 0, 0, 2);
+        balls.add(230, 200, 0, 0, 2);
+        assertEquals(1, balls.checkHole(0, holes));
+        assertEquals(-1, balls.checkHole(1, holes));
+        assertEquals(0, balls.checkHole(2, holes));
+        assertTrue(balls.getRadius(2) < App.CELLSIZE / 2);
+    }
+
+    /** Checks balls passing a hole are pulled in at the same game time at 30 and 60 ticks per second */
+    @Test
+    void testCaptureMatchesAcrossTickRates() {
+        for (int offset : new int[]{10, 30, 44}) {
+            float slow = captureTime(offset, 30);
+            float fast = captureTime(offset, 60);
+            assertTrue(slow > 0, "ball " + offset + " px off the hole's path should be captured");
+            // Within one tick at the slower rate; an unscaled pull drifts by over a tenth of a second
+            assertEquals(slow, fast, 1 / 30f + 1e-4f, "ball " + offset + " px off the hole's path");
+        }
+    }
+
+    /**
+     * Steps a ball moving right at 60 pixels per second past a hole, the given distance off its centre line
+     * @return Seconds until it is captured, or -1 if it never is
+     */
+    private static float captureTime(int offset, int ticksPerSecond) {
+        HoleRegistry holes = new HoleRegistry(18, 18);
+        holes.add(300, 300, 1);
+        BallStore balls = new BallStore(1, ticksPerSecond);
+        balls.add(200, 300 - offset, 60f / ticksPerSecond, 0, 1);
+        for (int tick = 1; tick <= ticksPerSecond * 5; tick++) {
+            balls.integrate();
+            int result = balls.checkHole(0, holes);
+            if (result != 0) {
+                assertEquals(1, result);
+                return tick / (float) ticksPerSecond;
+            }
+        }
+        return -1;
+    }
+
+    /** Tests a ball too fast for the overlap test stops at the wall face and bounces */
+    @Test
+    void testSweptBallCannotTunnelThroughWall() {
+        WallGrid grid = new WallGrid(18, 18);
+        grid.add(new Wall(3, 3, "wall2", null));
+        BallStore balls = new BallStore(1);
+        float y = 3 * App.CELLSIZE + App.CELLSIZE / 2 + App.TOPBAR;
+        balls.add(48, y, 40, 0, 1);
+        assertNull(balls.sweep(0, grid, null, 1));
+        // Touches the face at x = 80 after 0.8 of the step, then travels back for the remaining 0.2
+        assertEquals(72, balls.getX(0), 1e-3);
+        assertEquals(-40, balls.getVx(0));
+        assertEquals(2, balls.getColour(0));
+    }
+
+    /** Confirms a fast ball bounces off a thin line instead of passing through it */
+    @Test
+    void testSweptBallHitsLine() {
+        SegmentGrid segments = new SegmentGrid(App.WIDTH, App.HEIGHT, App.CELLSIZE);
+        Line line = new Line();
+        line.addPoint(200, 150);
+        line.addPoint(200, 350);
+        segments.add(line);
+        BallStore balls = new BallStore(1);
+        balls.add(150, 250, 100, 0, 1);
+        assertNull(segments.findCollision(balls, 0)); // the overlap test misses it entirely
+
+        SegmentGrid.Segment hit = balls.sweep(0, new WallGrid(18, 18), segments, 1);
+        assertSame(line, hit.line);
+        assertEquals(-100, balls.getVx(0), 1e-3);
+        assertEquals(108, balls.getX(0), 1e-3);
+    }
+}
@@ -0,0 +1,34 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardTest {
+    /** Verifies typed accessors read the loaded tile codes */
+    @Test
+    void testLoadAndRead() {
+        Board board = new Board(2, 3);
+        board.load(new byte[]{
+                TileCode.ENTRYPOINT, TileCode.wall(3), TileCode.TILE,
+                TileCode.hole(2), TileCode.TILE, TileCode.wall(0)});
+        assertTrue(board.isEntrypoint(0, 0));
+        assertTrue(board.isWall(1, 0));
+        assertEquals(3, board.getColour(1, 0));
+        assertTrue(board.isHole(0, 1));
+        assertEquals(2, board.getColour(0, 1));
+        assertEquals(0, board.getColour(2, 1));
+        assertFalse(board.isWall(1, 1));
+    }
+
+    /** Tests cells outside the board read as plain tiles and clearing resets every cell */
+    @Test
+    void testOutOfBoundsAndClear() {
+        Board board = new Board(1, 1);
+        board.load(new byte[]{TileCode.wall(1)});
+        assertEquals(TileCode.TILE, board.get(-1, 0));
+        assertEquals(TileCode.TILE, board.get(0, 5));
+        board.clear();
+        assertEquals(TileCode.TILE, board.get(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> board.load(new byte[2]));
+    }
+}
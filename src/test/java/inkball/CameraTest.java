@@ -0,0 +1,43 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CameraTest {
+
+    /** Verifies panning stops at the world edges */
+    @Test
+    void testPanClampsToWorld() {
+        Camera camera = new Camera(App.WIDTH, App.HEIGHT);
+        camera.setWorld(App.WIDTH * 2, App.HEIGHT + 100);
+        camera.pan(-50, -50);
+        assertEquals(0, camera.getScrollX(), 0.0001);
+        assertEquals(0, camera.getScrollY(), 0.0001);
+        camera.pan(10000, 10000);
+        assertEquals(App.WIDTH, camera.getScrollX(), 0.0001);
+        assertEquals(100, camera.getScrollY(), 0.0001);
+
+        // Shrinking the world pulls the view back inside it
+        camera.setWorld(App.WIDTH, App.HEIGHT);
+        assertEquals(0, camera.getScrollX(), 0.0001);
+        assertEquals(0, camera.getScrollY(), 0.0001);
+    }
+
+    /** Tests visibility and the visible cell range follow the scroll position */
+    @Test
+    void testVisibleRange() {
+        Camera camera = new Camera(App.WIDTH, App.HEIGHT);
+        camera.setWorld(App.WIDTH * 3, App.HEIGHT * 3);
+        camera.pan(App.CELLSIZE * 20, App.CELLSIZE * 4);
+
+        assertEquals(20, camera.firstCol());
+        assertEquals(20 + App.WIDTH / App.CELLSIZE - 1, camera.lastCol());
+        assertEquals(4, camera.firstRow());
+        assertEquals(4 + (App.HEIGHT - App.TOPBAR) / App.CELLSIZE - 1, camera.lastRow());
+
+        assertFalse(camera.isVisible(0, App.TOPBAR, 10, App.TOPBAR + 10));
+        assertTrue(camera.isVisible(App.CELLSIZE * 20, 300, App.CELLSIZE * 20 + 10, 310));
+        assertEquals(App.CELLSIZE * 20 + 5, camera.toWorldX(5), 0.0001);
+        assertEquals(App.CELLSIZE * 4 + 5, camera.toWorldY(5), 0.0001);
+    }
+}
@@ -0,0 +1,80 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColourQueueTest {
+
+    /** Verifies colours come out in order as the ring wraps around */
+    @Test
+    void testWrapsAround() {
+        ColourQueue queue = new ColourQueue(3);
+        queue.add(1);
+        queue.add(2);
+        assertEquals(1, queue.poll());
+        queue.add(3);
+        queue.add(4);
+        assertEquals(3, queue.size());
+        assertEquals(3, queue.getCapacity());
+        assertEquals(2, queue.peek(0));
+        assertEquals(3, queue.peek(1));
+        assertEquals(4, queue.peek(2));
+        assertEquals(2, queue.poll());
+        assertEquals(3, queue.poll());
+        assertEquals(4, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    /** Tests a full queue rejects more colours instead of growing, and an empty one rejects polls */
+    @Test
+    void testRejectsOverflow() {
+        ColourQueue queue = new ColourQueue(2);
+        queue.add(0);
+        queue.add(1);
+        assertThrows(IllegalStateException.class, () -> queue.add(2));
+        assertEquals(2, queue.getCapacity());
+        assertEquals(0, queue.poll());
+        assertEquals(1, queue.poll());
+        assertThrows(IllegalStateException.class, queue::poll);
+    }
+
+    /** Checks spawning every ball and queuing every one again allocates nothing */
+    @Test
+    void testSpawnCycleDoesNotAllocate() {
+        ColourQueue queue = new ColourQueue(40);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int warmup = 0; warmup < 1000; warmup++) {
+            spawnAndRespawn(queue);
+        }
+        threads.getCurrentThreadAllocatedBytes();
+
+        // The JVM may charge the odd compiler or class-loading object to this thread, so take
+        // the quietest of a few rounds; an allocation per cycle would show in every round
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int cycle = 0; cycle < 1000; cycle++) {
+                spawnAndRespawn(queue);
+            }
+            allocated = Math.min(allocated, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+        assertEquals(0, allocated);
+        assertEquals(40, queue.getCapacity());
+    }
+
+    /** Spawns a full level's queue, then sends every ball back as if it hit the wrong hole */
+    private static void spawnAndRespawn(ColourQueue queue) {
+        for (int i = 0; i < 40; i++) {
+            queue.add(i % Colour.COUNT);
+        }
+        // Offset the head so the ring wraps on the next cycle
+        queue.poll();
+        queue.add(Colour.GREY);
+        while (!queue.isEmpty()) {
+            queue.poll();
+        }
+    }
+}
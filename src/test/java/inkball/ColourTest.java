@@ -0,0 +1,39 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColourTest {
+
+    /** Verifies coloured walls recolour balls and grey walls leave them alone */
+    @Test
+    void testRecolourTable() {
+        for (int ball = 0; ball < Colour.COUNT; ball++) {
+            assertEquals(ball, Colour.afterWallHit(Colour.GREY, ball));
+            for (int wall = 1; wall < Colour.COUNT; wall++) {
+                assertEquals(wall, Colour.afterWallHit(wall, ball));
+            }
+        }
+    }
+
+    /** Verifies grey matches every hole and every other colour only its own */
+    @Test
+    void testCaptureTable() {
+        for (int ball = 0; ball < Colour.COUNT; ball++) {
+            for (int hole = 0; hole < Colour.COUNT; hole++) {
+                boolean expected = ball == hole || ball == Colour.GREY || hole == Colour.GREY;
+                assertEquals(expected, Colour.canCapture(ball, hole), "ball " + ball + " hole " + hole);
+            }
+        }
+    }
+
+    /** Checks config names map to colour numbers, with unknown names and numbers as grey */
+    @Test
+    void testNamesAndFallback() {
+        assertEquals(Colour.BLUE, Colour.byName("Blue"));
+        assertEquals(Colour.GREY, Colour.byName("purple"));
+        assertEquals("yellow", Colour.name(Colour.YELLOW));
+        assertEquals(Colour.GREY, Colour.orGrey(7));
+        assertEquals(Colour.GREEN, Colour.orGrey(Colour.GREEN));
+    }
+}
@@ -0,0 +1,35 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FixedTimestepTest {
+    private static final long MS = 1_000_000L;
+
+    /** Verifies irregular wake-ups still add up to one step per period, carrying the remainder */
+    @Test
+    void testAccumulatesWholeSteps() {
+        FixedTimestep clock = new FixedTimestep(100, 5); // 10 ms steps
+        long now = 1_000 * MS;
+        assertEquals(0, clock.advance(now));
+        assertEquals(0, clock.advance(now += 4 * MS));
+        assertEquals(6 * MS, clock.getNanosUntilNextStep());
+        assertEquals(1, clock.advance(now += 9 * MS));
+        assertEquals(now - 3 * MS, clock.getStepTime());
+        assertEquals(7 * MS, clock.getNanosUntilNextStep());
+        assertEquals(2, clock.advance(now += 20 * MS));
+        assertEquals(0, clock.getDroppedSteps());
+    }
+
+    /** Tests a long stall runs at most maxSteps and drops the rest instead of carrying them over */
+    @Test
+    void testDropsBacklogPastMaxSteps() {
+        FixedTimestep clock = new FixedTimestep(100, 5);
+        long now = 0;
+        clock.advance(now);
+        assertEquals(5, clock.advance(now += 123 * MS));
+        assertEquals(7, clock.getDroppedSteps());
+        assertEquals(7 * MS, clock.getNanosUntilNextStep());
+        assertEquals(1, clock.advance(now += 7 * MS));
+    }
+}
@@ -0,0 +1,55 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameProfilerTest {
+    private static GameEngine createEngine() throws IOException {
+        return TestLevels.start("XXXXXX\nX S  X\nX    X\nXXXXXX", 60, 1, "\"blue\", \"green\"");
+    }
+
+    /** Verifies every headless tick records one frame and spawns are counted */
+    @Test
+    void testRecordsFramesAndCounters() throws IOException {
+        GameEngine engine = createEngine();
+        FrameProfiler profiler = engine.getProfiler();
+        profiler.setEnabled(true);
+        engine.run(engine.getTicksPerSecond() * 3);
+
+        assertEquals(engine.getTicksPerSecond() * 3, profiler.getFrames());
+        assertEquals(profiler.getFrames(), profiler.getHistogram(FrameProfiler.Phase.TIMERS).getCount());
+        assertEquals(2, profiler.getCount(FrameProfiler.Counter.SPAWNS));
+        assertTrue(profiler.getCount(FrameProfiler.Counter.COLLISIONS_TESTED) > 0);
+        assertTrue(profiler.summary().contains("WALL_COLLISION"));
+    }
+
+    /** Checks each profiler's summary is written under its own heading */
+    @Test
+    void testWritesTitledSummaries() throws IOException {
+        GameEngine engine = createEngine();
+        FrameProfiler ticks = engine.getProfiler();
+        ticks.setEnabled(true);
+        engine.run(5);
+        FrameProfiler frames = new FrameProfiler();
+
+        Path file = Files.createTempFile("profile", ".txt");
+        FrameProfiler.writeSummary(file, new String[] {"Simulation ticks", "Rendered frames"}, ticks, frames);
+        String text = Files.readString(file);
+        assertTrue(text.startsWith("Simulation ticks\nFrames: 5"));
+        assertTrue(text.contains("\nRendered frames\nFrames: 0"));
+    }
+
+    /** Confirms a disabled profiler records nothing */
+    @Test
+    void testDisabledRecordsNothing() throws IOException {
+        GameEngine engine = createEngine();
+        engine.run(engine.getTicksPerSecond() * 3);
+        FrameProfiler profiler = engine.getProfiler();
+        assertEquals(0, profiler.getFrames());
+        assertEquals(0, profiler.getCount(FrameProfiler.Counter.SPAWNS));
+    }
+}
@@ -0,0 +1,193 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameEngineTest {
+    /** Verifies the layout is parsed into walls, balls and board cells */
+    @Test
+    void testLevelLoading() throws IOException {
+        GameEngine engine = TestLevels.start("X1\n  B2\nS", 60, 10, "");
+        assertEquals(2, engine.getWalls().size());
+        assertEquals(1, engine.getBalls().size());
+        assertEquals(TileCode.wall(1), engine.getBoard().get(1, 0));
+        assertTrue(engine.getBoard().isEntrypoint(0, 2));
+    }
+
+    /** Checks a layout larger than the window grows the world instead of being cut off */
+    @Test
+    void testLargeLevelGrowsWorld() throws IOException {
+        StringBuilder layout = new StringBuilder();
+        for (int row = 0; row < 30; row++) {
+            layout.append(row == 25 ? "S                        3" : "").append('\n');
+        }
+        GameEngine engine = TestLevels.start(layout.toString(), 60, 10, "");
+        assertEquals(30, engine.getBoard().getRows());
+        assertEquals(26, engine.getBoard().getCols());
+        assertEquals(26 * App.CELLSIZE, engine.getWorldWidth());
+        assertEquals(30 * App.CELLSIZE + App.TOPBAR, engine.getWorldHeight());
+        assertTrue(engine.getBoard().isEntrypoint(0, 25));
+        assertEquals(TileCode.wall(3), engine.getBoard().get(25, 25));
+    }
+
+    /** Checks the renderer gets the newest published tick and keeps it until another is published */
+    @Test
+    void testSnapshotsHoldNewestTick() throws IOException {
+        GameEngine engine = TestLevels.start("X1\n  B2\nS", 60, 10, "");
+        SnapshotBuffer snapshots = new SnapshotBuffer();
+        engine.tick();
+        snapshots.publish(engine);
+        engine.tick();
+        snapshots.publish(engine);
+
+        FrameSnapshot frame = snapshots.acquire();
+        assertEquals(engine.getTick(), frame.getTick());
+        assertEquals(engine.getBalls().getX(0), frame.getBallX(0), 0.0001);
+        // Interpolated positions run from the start of the tick to its end
+        assertEquals(engine.getBalls().getPreviousX(0), frame.getBallX(0, 0), 0.0001);
+        assertEquals(engine.getBalls().getX(0), frame.getBallX(0, 1), 0.0001);
+        assertNotEquals(frame.getBallX(0, 0), frame.getBallX(0, 1));
+        assertEquals(TileCode.wall(1), frame.getBoard().get(1, 0));
+
+        engine.tick();
+        assertSame(frame, snapshots.acquire());
+        snapshots.publish(engine);
+        assertEquals(engine.getTick(), snapshots.acquire().getTick());
+        assertEquals(engine.getTick() - 1, frame.getTick());
+    }
+
+    /** Verifies removed lines go back to the pool and come out empty for the next stroke */
+    @Test
+    void testRemovedLinesAreRecycled() throws IOException {
+        GameEngine engine = TestLevels.start("S", 60, 10, "");
+        Line line = engine.acquireLine();
+        line.addPoint(100, 200);
+        line.addPoint(300, 200);
+        engine.addLine(line);
+
+        assertTrue(engine.removeLineNear(200, 200));
+        assertEquals(1, engine.getLinePool().getFreeCount());
+        Line recycled = engine.acquireLine();
+        assertSame(line, recycled);
+        assertEquals(0, recycled.getPointCount());
+
+        // The recycled line is indexed afresh at its new position
+        recycled.addPoint(100, 400);
+        recycled.addPoint(300, 400);
+        engine.addLine(recycled);
+        assertFalse(engine.removeLineNear(200, 200));
+        assertTrue(engine.removeLineNear(200, 400));
+    }
+
+    /** Checks balls bouncing off one line together give the same result serially and across cores */
+    @Test
+    void testParallelSweptLineBouncesMatchSerial() throws Exception {
+        GameEngine serial = crowdAtLine(false);
+        GameEngine parallel = crowdAtLine(true);
+        // Parallel streams run in the pool they are started from, so this forces several workers
+        ForkJoinPool pool = new ForkJoinPool(8);
+        for (int t = 0; t < 20; t++) {
+            serial.tick();
+            pool.submit(parallel::tick).get();
+        }
+        pool.shutdown();
+
+        assertTrue(serial.getLines().isEmpty());
+        BallStore expected = serial.getBalls();
+        BallStore actual = parallel.getBalls();
+        assertEquals(expected.size(), actual.size());
+        int bounced = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getX(i), actual.getX(i), "x of ball " + i);
+            assertEquals(expected.getY(i), actual.getY(i), "y of ball " + i);
+            assertEquals(expected.getVx(i), actual.getVx(i), "vx of ball " + i);
+            assertEquals(expected.getVy(i), actual.getVy(i), "vy of ball " + i);
+            if (expected.getVy(i) < 0) bounced++;
+        }
+        assertTrue(bounced > 500, "most balls should have bounced off the line, got " + bounced);
+    }
+
+    /** Places a thousand swept balls all reaching the same line on the first tick */
+    private GameEngine crowdAtLine(boolean parallel) throws IOException {
+        GameEngine engine = TestLevels.start("S", 60, 10, "");
+        engine.setSweptCollisions(true);
+        engine.setParallel(parallel);
+        Line line = engine.acquireLine();
+        line.addPoint(20, 400);
+        line.addPoint(300, 410);
+        line.addPoint(556, 400);
+        engine.addLine(line);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            engine.getBalls().add(40 + random.nextFloat() * 496, 370, random.nextFloat() * 8 - 4, 15, 0);
+        }
+        return engine;
+    }
+
+    /** Verifies queued pointer input is turned into a line on the next tick */
+    @Test
+    void testQueuedInputDrawsLine() throws IOException {
+        GameEngine engine = TestLevels.start("S", 60, 10, "");
+        InputQueue input = engine.getInput();
+        input.offer(InputQueue.PRESS, 100, 200, (char) 0);
+        input.offer(InputQueue.DRAG, 200, 200, (char) 0);
+        input.offer(InputQueue.DRAG, 300, 260, (char) 0);
+        assertEquals(0, engine.getLines().size());
+
+        engine.tick();
+        assertNotNull(engine.getDrawingLine());
+        input.offer(InputQueue.RELEASE, 300, 260, (char) 0);
+        input.offer(InputQueue.KEY, 0, 0, ' ');
+        engine.tick();
+        assertNull(engine.getDrawingLine());
+        assertEquals(1, engine.getLines().size());
+        assertEquals(3, engine.getLines().get(0).getPointCount());
+        assertTrue(engine.isPaused());
+    }
+
+    /** Confirms one second of game time passes every getTicksPerSecond() ticks */
+    @Test
+    void testTimerCountsDown() throws IOException {
+        GameEngine engine = TestLevels.start("S", 60, 10, "\"blue\"");
+        for (int i = 0; i < engine.getTicksPerSecond(); i++) {
+            engine.tick();
+        }
+        assertEquals(59, engine.getTimeRemaining());
+    }
+
+    /** Verifies an engine given a faster tick rate keeps game time and ball speed per second */
+    @Test
+    void testTickRateKeepsGameTime() throws IOException {
+        GameEngine engine = new GameEngine(
+                LevelCompiler.compile(TestLevels.write("S", 60, 1, "\"blue\"").toString()), null, 60);
+        engine.start();
+        engine.run(61); // one second, then the tick the first ball spawns on
+        assertEquals(59, engine.getTimeRemaining());
+        assertEquals(1, engine.getBalls().size());
+        assertEquals(1, Math.abs(engine.getBalls().getVx(0)), 1e-6); // 60 pixels per second
+    }
+
+    /** Tests that the timer stops while paused */
+    @Test
+    void testPauseStopsTimer() throws IOException {
+        GameEngine engine = TestLevels.start("S", 60, 10, "\"blue\"");
+        engine.togglePause();
+        engine.run(engine.getTicksPerSecond() * 3);
+        assertEquals(60, engine.getTimeRemaining());
+    }
+
+    /** Verifies an empty level converts remaining time into score and ends the game */
+    @Test
+    void testEmptyLevelFinishesWithTimeBonus() throws IOException {
+        GameEngine engine = TestLevels.start("", 5, 10, "");
+        engine.run(1000);
+        assertTrue(engine.isGameEnded());
+        assertTrue(engine.isGameFinished());
+        assertEquals(5, engine.getScore());
+    }
+}
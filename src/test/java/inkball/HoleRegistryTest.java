@@ -0,0 +1,62 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HoleRegistryTest {
+    /** Verifies holes are found only within range */
+    @Test
+    void testFindInRange() {
+        HoleRegistry holes = new HoleRegistry(18, 18);
+        holes.add(200, 300, 2);
+        assertEquals(0, holes.findInRange(220, 320));
+        assertEquals(-1, holes.findInRange(250, 300));
+    }
+
+    /** Tests the colour compatibility table */
+    @Test
+    void testCanCapture() {
+        HoleRegistry holes = new HoleRegistry(18, 18);
+        holes.add(100, 200, 2);
+        holes.add(300, 200, 0);
+        assertTrue(holes.canCapture(2, 0));
+        assertTrue(holes.canCapture(0, 0));
+        assertFalse(holes.canCapture(3, 0));
+        assertTrue(holes.canCapture(3, 1));
+    }
+
+    /** Compares cell lookup against scanning every hole in order */
+    @Test
+    void testMatchesLinearScan() {
+        Random random = new Random(5);
+        HoleRegistry holes = new HoleRegistry(18, 18);
+        for (int i = 0; i < 12; i++) {
+            holes.add(random.nextInt(App.WIDTH), App.TOPBAR + random.nextInt(App.HEIGHT - App.TOPBAR), random.nextInt(5));
+        }
+        for (int p = 0; p < 2000; p++) {
+            float x = random.nextInt(App.WIDTH + 40) - 20;
+            float y = App.TOPBAR - 20 + random.nextInt(App.HEIGHT - App.TOPBAR + 40);
+            int expected = -1;
+            for (int h = 0; h < holes.size(); h++) {
+                float dx = holes.getX(h) - x, dy = holes.getY(h) - y;
+                if (dx * dx + dy * dy <= 45 * 45) {
+                    expected = h;
+                    break;
+                }
+            }
+            assertEquals(expected, holes.findInRange(x, y));
+        }
+    }
+
+    /** Confirms clearing removes every hole from the lookup */
+    @Test
+    void testClear() {
+        HoleRegistry holes = new HoleRegistry(18, 18);
+        holes.add(200, 300, 1);
+        holes.clear();
+        assertEquals(0, holes.size());
+        assertEquals(-1, holes.findInRange(200, 300));
+    }
+}
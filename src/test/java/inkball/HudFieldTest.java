@@ -0,0 +1,40 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HudFieldTest {
+
+    /** Verifies whole numbers follow the prefix, including zero and negatives */
+    @Test
+    void testIntegers() {
+        HudField field = new HudField("Score: ");
+        field.setInt(0);
+        assertEquals("Score: 0", field.toString());
+        field.setInt(1250);
+        assertEquals("Score: 1250", field.toString());
+        field.setInt(-35);
+        assertEquals("Score: -35", field.toString());
+    }
+
+    /** Checks tenths are shown like String.format("%.1f") */
+    @Test
+    void testTenths() {
+        HudField field = new HudField("");
+        for (int tenths : new int[]{0, 3, 10, 25, 123, -7}) {
+            field.setTenths(tenths);
+            assertEquals(String.format("%.1f", tenths / 10.0), field.toString());
+        }
+    }
+
+    /** Tests the text is only rewritten when the value changes */
+    @Test
+    void testReformatsOnlyOnChange() {
+        HudField field = new HudField("Time: ");
+        assertTrue(field.setInt(60));
+        assertFalse(field.setInt(60));
+        assertTrue(field.setInt(59));
+        assertTrue(field.setTenths(59));
+        assertEquals("Time: 5.9", field.toString());
+    }
+}
@@ -0,0 +1,61 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputQueueTest {
+
+    /** Verifies events drain in order and a full queue drops new events */
+    @Test
+    void testOrderAndCapacity() {
+        InputQueue queue = new InputQueue(3);
+        assertEquals(4, queue.getCapacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(InputQueue.DRAG, i, -i, (char) 0));
+        }
+        assertEquals(0, queue.getDroppedCount());
+        assertFalse(queue.offer(InputQueue.RELEASE, 0, 0, (char) 0));
+        assertFalse(queue.offer(InputQueue.KEY, 0, 0, 'r'));
+        assertEquals(2, queue.getDroppedCount());
+        assertEquals(4, queue.size()); // the queued events are untouched
+
+        ArrayList<Float> xs = new ArrayList<>();
+        assertEquals(4, queue.drain((type, x, y, key) -> xs.add(x)));
+        assertEquals(4, xs.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, xs.get(i), 0.0001);
+        }
+        assertEquals(0, queue.size());
+        assertTrue(queue.offer(InputQueue.KEY, 0, 0, 'r'));
+        assertEquals(2, queue.getDroppedCount());
+    }
+
+    /** Tests every event crosses from a producer thread to the consumer exactly once, in order */
+    @Test
+    void testAcrossThreads() throws InterruptedException {
+        InputQueue queue = new InputQueue(64);
+        int events = 200000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < events; i++) {
+                while (!queue.offer(InputQueue.DRAG, i, 0, (char) 0)) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+        producer.start();
+
+        int[] next = {0};
+        boolean[] ordered = {true};
+        while (next[0] < events) {
+            queue.drain((type, x, y, key) -> {
+                ordered[0] &= x == (float) next[0];
+                next[0]++;
+            });
+        }
+        producer.join();
+        assertTrue(ordered[0]);
+        assertEquals(0, queue.size());
+    }
+}
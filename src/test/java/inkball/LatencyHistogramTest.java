@@ -0,0 +1,35 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+    /** Verifies percentiles land within a quarter of the true value */
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        long p50 = histogram.percentile(0.5);
+        assertTrue(p50 >= 500_000 && p50 <= 625_000);
+        long p99 = histogram.percentile(0.99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000);
+        assertEquals(500_500, histogram.getMean(), 1e-6);
+    }
+
+    /** Tests small values, which get exact buckets */
+    @Test
+    void testSmallValuesExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(-5);
+        assertEquals(0, histogram.percentile(0.5));
+        assertEquals(3, histogram.percentile(1));
+        histogram.clear();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(0.99));
+    }
+}
@@ -0,0 +1,153 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import processing.data.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelBundleTest {
+    private static final String CONFIG = TestLevels.config(
+            TestLevels.level("a", 60, 5, 1.5f, 2, "\"blue\", \"yellow\", \"grey\""),
+            TestLevels.level("b", 30, 8, ""));
+
+    private LevelBundle compile() {
+        return LevelCompiler.compile(JSONObject.parse(CONFIG), name -> name.equals("a")
+                ? new String[]{"X1S", "B3 H2", "", "4"}
+                : new String[]{"S"});
+    }
+
+    /** Verifies the compiler produces the same board and entities the layout loader did */
+    @Test
+    void testCompileLevel() {
+        LevelBundle bundle = compile();
+        assertEquals(2, bundle.size());
+        assertEquals(40, bundle.getScoreIncrease(2));
+
+        LevelBundle.Level level = bundle.getLevel(0);
+        assertEquals(60, level.time);
+        assertEquals(1.5f, level.scoreIncreaseModifier);
+        assertArrayEquals(new byte[]{2, 4, 0}, level.spawnQueue);
+        assertEquals(TileCode.wall(0), level.board[0]);
+        assertEquals(TileCode.wall(1), level.board[1]);
+        assertEquals(TileCode.ENTRYPOINT, level.board[2]);
+        assertEquals(TileCode.hole(2), level.board[level.cols + 3]);
+        assertEquals(TileCode.TILE, level.board[level.cols + 4]);
+        assertEquals(TileCode.hole(2), level.board[2 * level.cols + 4]);
+        assertArrayEquals(new byte[]{0, 1, 4}, level.wallColours);
+        assertArrayEquals(new byte[]{3}, level.ballColours);
+        assertArrayEquals(new short[]{1}, level.holeRows);
+        assertArrayEquals(new short[]{3}, level.holeCols);
+    }
+
+    /** Confirms a bundle reads back exactly as it was written */
+    @Test
+    void testWriteReadRoundTrip() throws IOException {
+        LevelBundle bundle = compile();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bundle.write(out);
+        LevelBundle read = LevelBundle.read(ByteBuffer.wrap(out.toByteArray()));
+
+        assertEquals(bundle.size(), read.size());
+        for (int colour = 0; colour < 5; colour++) {
+            assertEquals(bundle.getScoreIncrease(colour), read.getScoreIncrease(colour));
+            assertEquals(bundle.getScoreDecrease(colour), read.getScoreDecrease(colour));
+        }
+        for (int i = 0; i < bundle.size(); i++) {
+            LevelBundle.Level expected = bundle.getLevel(i);
+            LevelBundle.Level actual = read.getLevel(i);
+            assertEquals(expected.spawnInterval, actual.spawnInterval);
+            assertEquals(expected.scoreDecreaseModifier, actual.scoreDecreaseModifier);
+            assertArrayEquals(expected.board, actual.board);
+            assertArrayEquals(expected.spawnQueue, actual.spawnQueue);
+            assertArrayEquals(expected.wallCols, actual.wallCols);
+            assertArrayEquals(expected.spawnerRows, actual.spawnerRows);
+            assertArrayEquals(expected.ballColours, actual.ballColours);
+            assertArrayEquals(expected.holeColours, actual.holeColours);
+        }
+    }
+
+    /** Checks a level with more walls than a short can count survives a round trip */
+    @Test
+    void testLargeLevelRoundTrip() throws IOException {
+        String[] layout = new String[200];
+        StringBuilder row = new StringBuilder();
+        for (int col = 0; col < 200; col++) row.append('X');
+        Arrays.fill(layout, row.toString());
+        LevelBundle bundle = LevelCompiler.compile(JSONObject.parse(CONFIG), name -> layout);
+        assertEquals(40000, bundle.getLevel(0).wallRows.length);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bundle.write(out);
+        LevelBundle.Level read = LevelBundle.read(ByteBuffer.wrap(out.toByteArray())).getLevel(0);
+        assertEquals(200, read.rows);
+        assertEquals(200, read.cols);
+        assertEquals(40000, read.wallRows.length);
+        assertEquals(199, read.wallCols[39999]);
+
+        char[] tooWide = new char[LevelBundle.MAX_DIMENSION + 1];
+        Arrays.fill(tooWide, ' ');
+        assertThrows(IllegalArgumentException.class,
+                () -> LevelCompiler.compile(JSONObject.parse(CONFIG), name -> new String[]{new String(tooWide)}));
+    }
+
+    /** Verifies holes and balls that would run off the board are rejected instead of wrapping */
+    @Test
+    void testRejectsEntitiesOffBoard() {
+        String[] holeOnLastRow = new String[(App.HEIGHT - App.TOPBAR) / App.CELLSIZE];
+        Arrays.fill(holeOnLastRow, "");
+        holeOnLastRow[holeOnLastRow.length - 1] = "H1";
+        assertThrows(IllegalArgumentException.class,
+                () -> LevelCompiler.compile(JSONObject.parse(CONFIG), name -> holeOnLastRow));
+        assertThrows(IllegalArgumentException.class,
+                () -> LevelCompiler.compile(JSONObject.parse(CONFIG), name -> new String[]{"                 B"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> LevelCompiler.compile(JSONObject.parse(CONFIG), name -> new String[]{"H7"}));
+    }
+
+    /** Tests that anything other than a bundle is rejected */
+    @Test
+    void testRejectsForeignData() {
+        assertThrows(IOException.class, () -> LevelBundle.read(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8})));
+    }
+
+    /** Checks a truncated or corrupt bundle with a valid header fails as an IOException */
+    @Test
+    void testRejectsTruncatedAndCorruptBundles() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compile().write(out);
+        byte[] bytes = out.toByteArray();
+        for (int length = 8; length < bytes.length; length++) {
+            ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> LevelBundle.read(truncated), "length " + length);
+        }
+
+        ByteBuffer corrupt = ByteBuffer.wrap(bytes.clone());
+        corrupt.putInt(8 + 2 * 5 * Integer.BYTES, Integer.MAX_VALUE); // level count
+        assertThrows(IOException.class, () -> LevelBundle.read(corrupt));
+        corrupt.putInt(8 + 2 * 5 * Integer.BYTES, -1);
+        assertThrows(IOException.class, () -> LevelBundle.read(corrupt));
+    }
+
+    /** Verifies a bundle older than its config is not used */
+    @Test
+    void testStaleBundleIsNotUpToDate() throws IOException {
+        Path dir = Files.createTempDirectory("inkball");
+        Path config = Files.write(dir.resolve("config.json"), CONFIG.getBytes());
+        Path bundle = dir.resolve("levels.bin");
+        assertFalse(LevelBundle.isUpToDate(bundle, config));
+
+        compile().write(bundle);
+        FileTime now = Files.getLastModifiedTime(config);
+        Files.setLastModifiedTime(bundle, FileTime.fromMillis(now.toMillis() + 1000));
+        assertTrue(LevelBundle.isUpToDate(bundle, config));
+        Files.setLastModifiedTime(config, FileTime.fromMillis(now.toMillis() + 2000));
+        assertFalse(LevelBundle.isUpToDate(bundle, config));
+    }
+}
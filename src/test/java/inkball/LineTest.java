@@ -9,7 +9,7 @@ public class LineTest {
         Line line = new Line();
         line.addPoint(10, 20);
         line.addPoint(30, 40);
-        assertEquals(2, line.getPoints().size());
+        assertEquals(2, line.getPointCount());
     }
     /** Tests ball reflection physics when colliding with line segment */
     @Test
@@ -17,9 +17,11 @@ public class LineTest {
         Line line = new Line();
         line.addPoint(100, 100);
         line.addPoint(200, 100);
-        Ball ball = new Ball(150, 90, 0, 2, "ball1", null);
-        assertTrue(line.handleCollision(ball));
-        assertTrue(ball.getVy() < 0); // Ball should bounce upward
+        BallStore balls = new BallStore(1);
+        balls.add(150, 90, 0, 2, 1);
+        assertTrue(line.handleCollision(balls, 0));
+        assertEquals(-2, balls.getVy(0), 1e-6); // Ball should bounce straight back up
+        assertEquals(0, balls.getVx(0), 1e-6);
     }
     /** Verifies mouse proximity detection for line segments */
     @Test
@@ -0,0 +1,103 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolylineTest {
+    private static final float TOLERANCE = 1.0f;
+
+    /** Verifies duplicates and points on a straight run collapse into one segment */
+    @Test
+    void testStraightStrokeCollapses() {
+        Polyline line = new Polyline();
+        for (int x = 0; x <= 200; x++) {
+            line.addSimplified(x, 100, TOLERANCE);
+            line.addSimplified(x, 100, TOLERANCE);
+            assertEquals(x, line.getX(line.size() - 1)); // drawn line follows the mouse
+        }
+        assertEquals(2, line.size());
+        line.finishStroke(TOLERANCE);
+        assertEquals(2, line.size());
+        assertEquals(200, line.getX(1));
+    }
+
+    /** Confirms corners survive simplification */
+    @Test
+    void testCornerKept() {
+        Polyline line = new Polyline();
+        for (int i = 0; i <= 100; i++) line.addSimplified(i, 0, TOLERANCE);
+        for (int i = 1; i <= 100; i++) line.addSimplified(100, i, TOLERANCE);
+        line.finishStroke(TOLERANCE);
+        assertEquals(3, line.size());
+        assertEquals(100, line.getX(1));
+        assertEquals(0, line.getY(1));
+    }
+
+    /** Tests every point of a curved, pixel-snapped stroke stays within tolerance of the simplified line */
+    @Test
+    void testShapeWithinTolerance() {
+        Random random = new Random(5);
+        float[] xs = new float[500];
+        float[] ys = new float[500];
+        Polyline line = new Polyline();
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i + random.nextInt(2);
+            ys[i] = Math.round(200 + Math.sin(i / 30.0) * 80);
+            line.addSimplified(xs[i], ys[i], TOLERANCE);
+        }
+        line.finishStroke(TOLERANCE);
+        assertTrue(line.size() < xs.length / 4);
+
+        for (int i = 0; i < xs.length; i++) {
+            float best = Float.MAX_VALUE;
+            for (int s = 0; s < line.size() - 1; s++) {
+                best = Math.min(best, distance(xs[i], ys[i],
+                        line.getX(s), line.getY(s), line.getX(s + 1), line.getY(s + 1)));
+            }
+            assertTrue(best <= 2 * TOLERANCE, "point " + i + " is " + best + " away");
+        }
+    }
+
+    /** Checks the line drawn during a slowly curving stroke stays within tolerance of every point */
+    @Test
+    void testLiveLineWithinTolerance() {
+        float tolerance = Line.STROKE_TOLERANCE;
+        float[] ys = new float[400];
+        Polyline line = new Polyline();
+        for (int i = 0; i < ys.length; i++) {
+            // A gentle arc: each step looks straight, but the drift adds up along a run
+            ys[i] = Math.round(300 - Math.sqrt(400.0 * 400 - i * i) * 0.5);
+            line.addSimplified(i, ys[i], tolerance);
+        }
+        assertTrue(line.size() > 2 && line.size() < ys.length / 4);
+
+        for (int i = 0; i < ys.length; i++) {
+            float best = Float.MAX_VALUE;
+            for (int s = 0; s < line.size() - 1; s++) {
+                best = Math.min(best, distance(i, ys[i], line.getX(s), line.getY(s), line.getX(s + 1), line.getY(s + 1)));
+            }
+            assertTrue(best <= 2 * tolerance, "point " + i + " is " + best + " away");
+        }
+    }
+
+    /** Confirms the radial filter drops neighbouring pixel samples at the line's tolerance */
+    @Test
+    void testNeighbouringPixelsDropped() {
+        Polyline line = new Polyline();
+        line.addSimplified(10, 10, Line.STROKE_TOLERANCE);
+        line.addSimplified(11, 11, Line.STROKE_TOLERANCE);
+        line.addSimplified(11, 10, Line.STROKE_TOLERANCE);
+        assertEquals(1, line.size());
+        line.addSimplified(12, 12, Line.STROKE_TOLERANCE);
+        assertEquals(2, line.size());
+    }
+
+    private static float distance(float px, float py, float x1, float y1, float x2, float y2) {
+        float lengthSquared = (x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1);
+        float t = lengthSquared == 0 ? 0
+                : Math.max(0, Math.min(1, ((px - x1) * (x2 - x1) + (py - y1) * (y2 - y1)) / lengthSquared));
+        return (float) Math.hypot(px - (x1 + t * (x2 - x1)), py - (y1 + t * (y2 - y1)));
+    }
+}
@@ -0,0 +1,37 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateDividerTest {
+
+    /** Verifies 15 events a second stay exact at tick rates that are not multiples of 15 */
+    @Test
+    void testNonMultipleTickRates() {
+        for (int ticksPerSecond : new int[]{25, 40, 7, 1}) {
+            RateDivider rate = new RateDivider(15, ticksPerSecond);
+            int events = 0;
+            int largest = 0;
+            for (int tick = 0; tick < ticksPerSecond * 4; tick++) {
+                int due = rate.tick();
+                events += due;
+                largest = Math.max(largest, due);
+            }
+            assertEquals(60, events, "at " + ticksPerSecond + " ticks per second");
+            // Events are spread as evenly as the ticks allow
+            assertEquals((15 + ticksPerSecond - 1) / ticksPerSecond, largest);
+        }
+    }
+
+    /** Checks 15 events at 30 ticks per second fall on every other tick, as the bonus always has */
+    @Test
+    void testEveryOtherTick() {
+        RateDivider rate = new RateDivider(15, 30);
+        for (int tick = 1; tick <= 10; tick++) {
+            assertEquals(tick % 2 == 0 ? 1 : 0, rate.tick());
+        }
+        rate.reset();
+        assertEquals(0, rate.tick());
+        assertEquals(1, rate.tick());
+    }
+}
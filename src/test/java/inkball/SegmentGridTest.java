@@ -0,0 +1,94 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentGridTest {
+    private static Line line(float... coords) {
+        Line line = new Line();
+        for (int i = 0; i < coords.length; i += 2) {
+            line.addPoint(coords[i], coords[i + 1]);
+        }
+        return line;
+    }
+
+    /** Verifies a ball reflects off an indexed line and the line is reported */
+    @Test
+    void testBallHitsLine() {
+        SegmentGrid grid = new SegmentGrid(App.WIDTH, App.HEIGHT, App.CELLSIZE);
+        Line line = line(100, 200, 300, 200);
+        grid.add(line);
+        BallStore balls = new BallStore(1);
+        balls.add(150, 190, 0, 2, 1);
+        assertSame(line, grid.handleCollision(balls, 0));
+        assertTrue(balls.getVy(0) < 0);
+    }
+
+    /** Confirms distant and removed lines are not hit */
+    @Test
+    void testMissAndRemove() {
+        SegmentGrid grid = new SegmentGrid(App.WIDTH, App.HEIGHT, App.CELLSIZE);
+        Line line = line(100, 200, 300, 200);
+        grid.add(line);
+        BallStore balls = new BallStore(2);
+        balls.add(150, 400, 0, 2, 1);
+        balls.add(150, 190, 0, 2, 1);
+        assertNull(grid.handleCollision(balls, 0));
+        grid.remove(line);
+        assertNull(grid.handleCollision(balls, 1));
+    }
+
+    /** Tests that right-click deletion picks the earliest line under the cursor */
+    @Test
+    void testFindLineNear() {
+        SegmentGrid grid = new SegmentGrid(App.WIDTH, App.HEIGHT, App.CELLSIZE);
+        Line first = line(100, 200, 300, 200);
+        Line second = line(200, 100, 200, 300);
+        grid.add(first);
+        grid.add(second);
+        assertSame(first, grid.findLineNear(200, 202));
+        assertSame(second, grid.findLineNear(202, 150));
+        assertNull(grid.findLineNear(400, 400));
+    }
+
+    /** Compares grid results against scanning every line from newest to oldest */
+    @Test
+    void testMatchesLinearScan() {
+        Random random = new Random(3);
+        SegmentGrid grid = new SegmentGrid(App.WIDTH, App.HEIGHT, App.CELLSIZE);
+        ArrayList<Line> lines = new ArrayList<>();
+        for (int l = 0; l < 20; l++) {
+            Line line = new Line();
+            float x = random.nextInt(App.WIDTH), y = App.TOPBAR + random.nextInt(App.HEIGHT - App.TOPBAR);
+            for (int p = 0; p < 15; p++) {
+                line.addPoint(x, y);
+                x = Math.max(0, Math.min(App.WIDTH, x + random.nextInt(61) - 30));
+                y = Math.max(App.TOPBAR, Math.min(App.HEIGHT, y + random.nextInt(61) - 30));
+            }
+            lines.add(line);
+            grid.add(line);
+        }
+
+        for (int b = 0; b < 500; b++) {
+            float x = random.nextInt(App.WIDTH), y = App.TOPBAR + random.nextInt(App.HEIGHT - App.TOPBAR);
+            float vx = random.nextBoolean() ? 2 : -2, vy = random.nextBoolean() ? 2 : -2;
+            BallStore expected = new BallStore(1);
+            expected.add(x, y, vx, vy, 0);
+            Line expectedHit = null;
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                if (lines.get(i).handleCollision(expected, 0)) {
+                    expectedHit = lines.get(i);
+                    break;
+                }
+            }
+            BallStore actual = new BallStore(1);
+            actual.add(x, y, vx, vy, 0);
+            assertSame(expectedHit, grid.handleCollision(actual, 0));
+            assertEquals(expected.getVx(0), actual.getVx(0));
+            assertEquals(expected.getVy(0), actual.getVy(0));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import processing.core.PImage;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteAtlasTest {
+    /** Verifies each sprite is sliced from the sheet at its own size */
+    @Test
+    void testSlicing() {
+        SpriteAtlas atlas = new SpriteAtlas(new PImage(381, 400));
+        assertEquals(32, atlas.get(SpriteId.TILE).width);
+        assertEquals(64, atlas.get(SpriteId.HOLE3).height);
+        assertEquals(24, atlas.get(SpriteId.BALL2).width);
+    }
+
+    /** Tests colour number to sprite id mapping */
+    @Test
+    void testColourLookup() {
+        assertEquals(SpriteId.BALL3, SpriteId.ball(3));
+        assertEquals(SpriteId.WALL0, SpriteId.wall(0));
+        assertEquals(SpriteId.HOLE4, SpriteId.hole(4));
+        assertEquals(SpriteId.WALL2, new Wall(1, 1, "wall2", null).getSpriteId());
+    }
+}
@@ -0,0 +1,37 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SweptCollisionTest {
+    /** Verifies time of impact against a box face */
+    @Test
+    void testBoxFace() {
+        float t = SweptCollision.circleBox(-20, 5, 20, 0, 5, 0, 0, 10, 10);
+        assertEquals(0.75f, t, 1e-6);
+        assertEquals(SweptCollision.NO_HIT, SweptCollision.circleBox(-20, 5, 10, 0, 5, 0, 0, 10, 10));
+    }
+
+    /** Tests that a path clipping the grown box's square corner misses the rounded corner */
+    @Test
+    void testBoxCornerIsRounded() {
+        assertEquals(SweptCollision.NO_HIT, SweptCollision.circleBox(-10, 2.8f, 10, -10, 5, 0, 0, 10, 10));
+        assertTrue(SweptCollision.circleBox(-10, 3, 10, -10, 5, 0, 0, 10, 10) < 1);
+    }
+
+    /** Confirms touching shapes only collide when moving further in */
+    @Test
+    void testTouchingMovingAway() {
+        assertEquals(0, SweptCollision.circleBox(-5, 5, 1, 0, 5, 0, 0, 10, 10));
+        assertEquals(SweptCollision.NO_HIT, SweptCollision.circleBox(-5, 5, -1, 0, 5, 0, 0, 10, 10));
+        assertEquals(SweptCollision.NO_HIT, SweptCollision.circleCapsule(0, 8, 0, 5, 5, -10, 0, 10, 0, 5));
+    }
+
+    /** Verifies capsule sides and rounded ends */
+    @Test
+    void testCapsule() {
+        assertEquals(0.5f, SweptCollision.circleCapsule(0, 20, 0, -20, 5, -10, 0, 10, 0, 5), 1e-6);
+        // Straight at the end cap, along the segment's direction
+        assertEquals(0.5f, SweptCollision.circleCapsule(40, 0, -40, 0, 5, -10, 0, 10, 0, 5), 1e-6);
+    }
+}
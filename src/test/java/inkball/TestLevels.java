@@ -0,0 +1,76 @@
+package inkball;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds small games for tests and benchmarks: config.json text for one or more levels,
+ * optionally written with its layout to a temporary directory and loaded headlessly.
+ */
+final class TestLevels {
+    /** Base score per colour, all different so a mix-up between colours shows */
+    static final String SCORES = "{\"grey\": 70, \"orange\": 50, \"blue\": 40, \"green\": 30, \"yellow\": 100}";
+
+    private TestLevels() {
+    }
+
+    /**
+     * @param layoutFile Name of the level's layout file
+     * @param time Level time in seconds
+     * @param spawnInterval Seconds between spawns
+     * @param balls Comma-separated quoted colour names of the balls to spawn, e.g. "\"blue\", \"grey\""
+     * @return JSON for one level whose captures and penalties are unmodified
+     */
+    static String level(String layoutFile, int time, int spawnInterval, String balls) {
+        return level(layoutFile, time, spawnInterval, 1, 1, balls);
+    }
+
+    /**
+     * @param increaseModifier Multiplier on the score for a correct capture
+     * @param decreaseModifier Multiplier on the penalty for a wrong capture
+     * @return JSON for one level
+     */
+    static String level(String layoutFile, int time, int spawnInterval,
+                        float increaseModifier, float decreaseModifier, String balls) {
+        return "{\"layout\": \"" + layoutFile + "\", \"time\": " + time + ", \"spawn_interval\": " + spawnInterval + ","
+                + " \"score_increase_from_hole_capture_modifier\": " + increaseModifier + ","
+                + " \"score_decrease_from_wrong_hole_modifier\": " + decreaseModifier + ","
+                + " \"balls\": [" + balls + "]}";
+    }
+
+    /**
+     * @param levels Level JSON from level(), in play order
+     * @return config.json text scoring every level with SCORES
+     */
+    static String config(String... levels) {
+        return "{\"levels\": [" + String.join(", ", levels) + "],"
+                + " \"score_increase_from_hole_capture\": " + SCORES + ","
+                + " \"score_decrease_from_wrong_hole\": " + SCORES + "}";
+    }
+
+    /**
+     * Writes a single-level config and its layout to a new temporary directory
+     * @param layout Layout file contents
+     * @return Path of the written config.json
+     * @throws IOException if the files cannot be written
+     */
+    static Path write(String layout, int time, int spawnInterval, String balls) throws IOException {
+        Path dir = Files.createTempDirectory("inkball");
+        Files.write(dir.resolve("level.txt"), layout.getBytes());
+        Path configFile = dir.resolve("config.json");
+        Files.write(configFile, config(level("level.txt", time, spawnInterval, balls)).getBytes());
+        return configFile;
+    }
+
+    /**
+     * Writes a single-level game as write() does and loads it headlessly
+     * @return Started engine on the level
+     * @throws IOException if the files cannot be written or read
+     */
+    static GameEngine start(String layout, int time, int spawnInterval, String balls) throws IOException {
+        GameEngine engine = GameEngine.fromFiles(write(layout, time, spawnInterval, balls).toString());
+        engine.start();
+        return engine;
+    }
+}
@@ -0,0 +1,54 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WallFieldTest {
+    private static final float EPSILON = 1e-4f;
+
+    /** Verifies distances and normals at a face, a corner and inside a single wall */
+    @Test
+    void testDistanceAndNormals() {
+        WallGrid grid = new WallGrid(18, 18);
+        grid.add(new Wall(3, 3, "wall2", null));
+        WallField field = new WallField(18, 18);
+        field.build(grid);
+        float left = 3 * App.CELLSIZE, top = 3 * App.CELLSIZE + App.TOPBAR;
+
+        int face = field.sample(left - 8, top + 16);
+        assertEquals(8, field.getDistance(face), EPSILON);
+        assertEquals(-1, field.getNormalX(face), EPSILON);
+        assertEquals(0, field.getNormalY(face), EPSILON);
+        assertEquals(2, field.getColour(face));
+
+        int corner = field.sample(left - 8, top - 8);
+        assertEquals(8 * Math.sqrt(2), field.getDistance(corner), EPSILON);
+        assertEquals(-Math.sqrt(0.5), field.getNormalX(corner), EPSILON);
+        assertEquals(-Math.sqrt(0.5), field.getNormalY(corner), EPSILON);
+
+        assertTrue(field.getDistance(field.sample(left + 16, top + 12)) < 0);
+        assertEquals(WallField.NO_WALL, field.getColour(field.sample(0, App.TOPBAR)));
+        assertEquals(-1, field.sample(-App.CELLSIZE, App.TOPBAR));
+    }
+
+    /** Tests a ball meeting a wall corner diagonally bounces straight back, and one running along a row of walls is not stopped at the seams */
+    @Test
+    void testCornerAndSeam() {
+        WallGrid grid = new WallGrid(18, 18);
+        grid.add(new Wall(3, 3, "wall0", null));
+        grid.add(new Wall(4, 3, "wall0", null));
+        WallField field = new WallField(18, 18);
+        field.build(grid);
+        float left = 3 * App.CELLSIZE, top = 3 * App.CELLSIZE + App.TOPBAR;
+
+        BallStore balls = new BallStore(2);
+        balls.add(left - 8, top - 8, 2, 2, 1);
+        // Just below the seam between the two walls, moving right along them and slightly up
+        balls.add(4 * App.CELLSIZE, top + App.CELLSIZE + 12, 2, -1, 1);
+        balls.checkCollisions(field);
+        assertEquals(-2, balls.getVx(0), EPSILON);
+        assertEquals(-2, balls.getVy(0), EPSILON);
+        assertEquals(2, balls.getVx(1), EPSILON);
+        assertEquals(1, balls.getVy(1), EPSILON);
+    }
+}
@@ -0,0 +1,60 @@
+package inkball;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WallGridTest {
+    /** Verifies walls are stored and retrieved by grid cell */
+    @Test
+    void testWallLookup() {
+        WallGrid grid = new WallGrid(18, 18);
+        Wall wall = new Wall(4, 7, "wall1", null);
+        grid.add(wall);
+        assertSame(wall, grid.get(4, 7));
+        assertNull(grid.get(7, 4));
+    }
+
+    /** Tests that cells off the board are treated as open */
+    @Test
+    void testOutOfBoundsLookup() {
+        WallGrid grid = new WallGrid(18, 18);
+        grid.add(new Wall(20, 20, "wall1", null));
+        assertNull(grid.get(-1, 0));
+        assertNull(grid.get(18, 0));
+        assertNull(grid.get(20, 20));
+    }
+
+    /** Confirms a ball next to an indexed wall bounces off it */
+    @Test
+    void testBallBouncesOffNeighbourCell() {
+        WallGrid grid = new WallGrid(18, 18);
+        grid.add(new Wall(3, 3, "wall1", null));
+        assertEquals(-2, vxAfterCollision(grid));
+    }
+
+    /** Confirms walls away from the ball leave it alone */
+    @Test
+    void testDistantWallIgnored() {
+        WallGrid grid = new WallGrid(18, 18);
+        grid.add(new Wall(10, 10, "wall1", null));
+        assertEquals(2, vxAfterCollision(grid));
+    }
+
+    /** Builds the grid's wall field and collides a ball one cell left of cell (3, 3) moving right */
+    private static float vxAfterCollision(WallGrid grid) {
+        WallField field = new WallField(18, 18);
+        field.build(grid);
+        BallStore balls = new BallStore(1);
+        balls.add(2 * App.CELLSIZE + App.CELLSIZE / 2, 3 * App.CELLSIZE + App.CELLSIZE / 2 + App.TOPBAR, 2, 0, 1);
+        balls.checkCollisions(field);
+        return balls.getVx(0);
+    }
+
+    /** Verifies clearing the grid removes every wall */
+    @Test
+    void testClear() {
+        WallGrid grid = new WallGrid(18, 18);
+        grid.add(new Wall(1, 1, "wall0", null));
+        grid.clear();
+        assertNull(grid.get(1, 1));
+    }
+}
@@ -0,0 +1,71 @@
+package inkball;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * BallKernel on the incubating Vector API, processing as many balls per instruction as
+ * the CPU's widest float vectors hold. Needs --add-modules jdk.incubator.vector to compile
+ * and run; BallKernels falls back to ScalarBallKernel when it is unavailable.
+ * Operations are the same adds, multiplies and compares as the scalar kernel, in the same
+ * order and without fused multiply-add, so the results are identical.
+ */
+final class VectorBallKernel implements BallKernel {
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, FLOATS.vectorShape());
+    private static final BallKernel TAIL = new ScalarBallKernel();
+
+    @Override
+    public void integrate(float[] x, float[] y, float[] vx, float[] vy, int from, int to) {
+        int i = from;
+        for (int end = from + FLOATS.loopBound(to - from); i < end; i += FLOATS.length()) {
+            FloatVector.fromArray(FLOATS, x, i).add(FloatVector.fromArray(FLOATS, vx, i)).intoArray(x, i);
+            FloatVector.fromArray(FLOATS, y, i).add(FloatVector.fromArray(FLOATS, vy, i)).intoArray(y, i);
+        }
+        TAIL.integrate(x, y, vx, vy, i, to);
+    }
+
+    @Override
+    public void reflectOffBounds(float[] x, float[] y, float[] vx, float[] vy, float[] radius, int from, int to,
+                                 float minX, float minY, float maxX, float maxY) {
+        int i = from;
+        for (int end = from + FLOATS.loopBound(to - from); i < end; i += FLOATS.length()) {
+            FloatVector r = FloatVector.fromArray(FLOATS, radius, i);
+            FloatVector px = FloatVector.fromArray(FLOATS, x, i);
+            FloatVector py = FloatVector.fromArray(FLOATS, y, i);
+
+            VectorMask<Float> outX = px.sub(r).lt(minX).or(px.add(r).compare(VectorOperators.GT, maxX));
+            VectorMask<Float> outY = py.sub(r).lt(minY).or(py.add(r).compare(VectorOperators.GT, maxY));
+            FloatVector.fromArray(FLOATS, vx, i).lanewise(VectorOperators.NEG, outX).intoArray(vx, i);
+            FloatVector.fromArray(FLOATS, vy, i).lanewise(VectorOperators.NEG, outY).intoArray(vy, i);
+        }
+        TAIL.reflectOffBounds(x, y, vx, vy, radius, i, to, minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public void findHoles(float[] x, float[] y, int from, int to,
+                          float[] holeX, float[] holeY, int holes, float rangeSquared, int[] result) {
+        int i = from;
+        for (int end = from + FLOATS.loopBound(to - from); i < end; i += FLOATS.length()) {
+            FloatVector px = FloatVector.fromArray(FLOATS, x, i);
+            FloatVector py = FloatVector.fromArray(FLOATS, y, i);
+            IntVector found = IntVector.broadcast(INTS, -1);
+            VectorMask<Float> done = FLOATS.maskAll(false);
+
+            // Holes in order; a lane keeps the first hole that reaches it
+            for (int hole = 0; hole < holes && !done.allTrue(); hole++) {
+                FloatVector dx = FloatVector.broadcast(FLOATS, holeX[hole]).sub(px);
+                FloatVector dy = FloatVector.broadcast(FLOATS, holeY[hole]).sub(py);
+                VectorMask<Float> hit = dx.mul(dx).add(dy.mul(dy))
+                        .compare(VectorOperators.LE, rangeSquared).andNot(done);
+                found = found.blend(hole, hit.cast(INTS));
+                done = done.or(hit);
+            }
+            found.intoArray(result, i);
+        }
+        TAIL.findHoles(x, y, i, to, holeX, holeY, holes, rangeSquared, result);
+    }
+}